@@ -0,0 +1,26 @@
+package com.cricket.config;
+
+import com.cricket.controller.MatchStreamHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    
+    @Autowired
+    private MatchStreamHandler matchStreamHandler;
+    
+    @Value("${cricket.websocket.allowed-origins:*}")
+    private String[] allowedOrigins;
+    
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(matchStreamHandler, "/ws/matches/*")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+}
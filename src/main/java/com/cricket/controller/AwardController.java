@@ -1,11 +1,13 @@
 package com.cricket.controller;
 
 import com.cricket.service.AwardService;
+import com.cricket.service.AwardSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -18,6 +20,9 @@ public class AwardController {
     @Autowired
     private AwardService awardService;
     
+    @Autowired
+    private AwardSnapshotService awardSnapshotService;
+    
     @GetMapping("/matches/{matchId}/man-of-the-match")
     @Operation(summary = "Get man of the match", description = "Calculates and returns the man of the match for a specific match")
     public ResponseEntity<Map<String, Object>> getManOfTheMatch(@PathVariable Long matchId) {
@@ -45,29 +50,42 @@ public class AwardController {
     
     @GetMapping("/leagues/{leagueId}/tournament-awards")
     @Operation(summary = "Get tournament awards", description = "Retrieves all tournament awards for a specific league")
-    public ResponseEntity<Map<String, Object>> getTournamentAwards(@PathVariable Long leagueId) {
-        Map<String, Object> awards = awardService.calculateTournamentAwards(leagueId);
-        return ResponseEntity.ok(awards);
+    public ResponseEntity<Map<String, Object>> getTournamentAwards(@PathVariable Long leagueId, WebRequest request) {
+        AwardSnapshotService.AwardSnapshot snapshot = awardSnapshotService.getSnapshot(leagueId);
+        return fromSnapshot(snapshot, snapshot.tournamentAwards(), request);
     }
     
     @GetMapping("/leagues/{leagueId}/team-awards")
     @Operation(summary = "Get team awards", description = "Retrieves team awards for a specific league")
-    public ResponseEntity<Map<String, Object>> getTeamAwards(@PathVariable Long leagueId) {
-        Map<String, Object> teamAwards = awardService.calculateTeamAwards(leagueId);
-        return ResponseEntity.ok(teamAwards);
+    public ResponseEntity<Map<String, Object>> getTeamAwards(@PathVariable Long leagueId, WebRequest request) {
+        AwardSnapshotService.AwardSnapshot snapshot = awardSnapshotService.getSnapshot(leagueId);
+        return fromSnapshot(snapshot, snapshot.teamAwards(), request);
     }
     
     @GetMapping("/leagues/{leagueId}/century-makers")
     @Operation(summary = "Get century makers", description = "Retrieves list of players who have scored centuries in the league")
-    public ResponseEntity<List<Map<String, Object>>> getCenturyMakers(@PathVariable Long leagueId) {
-        List<Map<String, Object>> centuryMakers = awardService.calculateCenturyMakers(leagueId);
-        return ResponseEntity.ok(centuryMakers);
+    public ResponseEntity<List<Map<String, Object>>> getCenturyMakers(@PathVariable Long leagueId, WebRequest request) {
+        AwardSnapshotService.AwardSnapshot snapshot = awardSnapshotService.getSnapshot(leagueId);
+        return fromSnapshot(snapshot, snapshot.centuryMakers(), request);
     }
     
     @GetMapping("/leagues/{leagueId}/five-wicket-hauls")
     @Operation(summary = "Get five-wicket haul takers", description = "Retrieves list of players who have taken five-wicket hauls in the league")
-    public ResponseEntity<List<Map<String, Object>>> getFiveWicketHaulTakers(@PathVariable Long leagueId) {
-        List<Map<String, Object>> fiveWicketHauls = awardService.calculateFiveWicketHaulTakers(leagueId);
-        return ResponseEntity.ok(fiveWicketHauls);
+    public ResponseEntity<List<Map<String, Object>>> getFiveWicketHaulTakers(@PathVariable Long leagueId, WebRequest request) {
+        AwardSnapshotService.AwardSnapshot snapshot = awardSnapshotService.getSnapshot(leagueId);
+        return fromSnapshot(snapshot, snapshot.fiveWicketHauls(), request);
+    }
+    
+    // Awards change only when the snapshot is rebuilt; the build time keeps ETags apart across restarts
+    private <T> ResponseEntity<T> fromSnapshot(AwardSnapshotService.AwardSnapshot snapshot, T body, WebRequest request) {
+        String etag = "\"" + snapshot.version() + "-" + snapshot.builtAt() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header("X-Snapshot-Version", String.valueOf(snapshot.version()))
+                .header("X-Snapshot-Age-Ms", String.valueOf(snapshot.ageMillis()))
+                .body(body);
     }
 }
@@ -3,6 +3,7 @@ package com.cricket.controller;
 import com.cricket.dto.LeagueDTO;
 import com.cricket.entity.League;
 import com.cricket.service.LeagueService;
+import com.cricket.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,6 +24,9 @@ public class LeagueController {
     @Autowired
     private LeagueService leagueService;
     
+    @Autowired
+    private StatisticsService statisticsService;
+    
     @PostMapping
     @Operation(summary = "Create a new league", description = "Creates a new cricket league with the provided details")
     public ResponseEntity<LeagueDTO> createLeague(@Valid @RequestBody LeagueDTO leagueDTO) {
@@ -89,8 +94,8 @@ public class LeagueController {
     
     @GetMapping("/{id}/standings")
     @Operation(summary = "Get league standings", description = "Retrieves the points table for a specific league")
-    public ResponseEntity<List<Object>> getLeagueStandings(@PathVariable Long id) {
-        // This would be implemented in StatisticsService
-        return ResponseEntity.ok(List.of());
+    public ResponseEntity<List<Map<String, Object>>> getLeagueStandings(@PathVariable Long id) {
+        List<Map<String, Object>> standings = statisticsService.getLeagueStandings(id);
+        return ResponseEntity.ok(standings);
     }
 }
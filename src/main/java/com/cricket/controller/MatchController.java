@@ -1,21 +1,45 @@
 package com.cricket.controller;
 
+import com.cricket.dto.BallBatchResultDTO;
 import com.cricket.dto.BallDTO;
+import com.cricket.dto.InningsStateDTO;
 import com.cricket.dto.MatchDTO;
 import com.cricket.dto.ScorecardDTO;
+import com.cricket.dto.ScorecardDeltaDTO;
 import com.cricket.entity.*;
+import com.cricket.service.BallIngestionService;
+import com.cricket.service.BallJournalService;
+import com.cricket.service.CompletedScorecardCache;
+import com.cricket.service.DeliveryDedupeService;
+import com.cricket.service.LiveScorecardService;
+import com.cricket.service.MatchEventService;
+import com.cricket.service.MatchProgressionService;
 import com.cricket.service.MatchService;
+import com.cricket.service.MatchWaitService;
+import com.cricket.service.PartnershipService;
 import com.cricket.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -29,6 +53,36 @@ public class MatchController {
     @Autowired
     private StatisticsService statisticsService;
     
+    @Autowired
+    private BallIngestionService ballIngestionService;
+    
+    @Autowired
+    private BallJournalService ballJournalService;
+    
+    @Autowired
+    private LiveScorecardService liveScorecardService;
+    
+    @Autowired
+    private DeliveryDedupeService deliveryDedupeService;
+    
+    @Autowired
+    private MatchEventService matchEventService;
+    
+    @Autowired
+    private MatchWaitService matchWaitService;
+    
+    @Autowired
+    private CompletedScorecardCache completedScorecardCache;
+    
+    @Autowired
+    private PartnershipService partnershipService;
+    
+    @Autowired
+    private MatchProgressionService matchProgressionService;
+    
+    @Autowired
+    private Validator validator;
+    
     @PostMapping
     @Operation(summary = "Create a new match", description = "Creates a new cricket match with the provided details")
     public ResponseEntity<MatchDTO> createMatch(@Valid @RequestBody MatchDTO matchDTO) {
@@ -60,12 +114,99 @@ public class MatchController {
     }
     
     @GetMapping("/{id}/scorecard")
-    @Operation(summary = "Get match scorecard", description = "Retrieves the live scorecard for a specific match")
-    public ResponseEntity<ScorecardDTO> getMatchScorecard(@PathVariable Long id) {
-        MatchScorecard scorecard = matchService.getMatchScorecard(id);
+    @Operation(summary = "Get match scorecard", description = "Retrieves the live scorecard for a specific match; send If-None-Match with the last ETag to get 304 when nothing has changed")
+    public ResponseEntity<?> getMatchScorecard(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                               WebRequest request) {
+        // A live match answers a matching ETag from memory without loading anything
+        Long version = liveScorecardService.getVersion(id);
+        if (version != null && request.checkNotModified(scorecardETag(version))) {
+            return null;
+        }
+        
+        // Completed matches are served from pre-rendered bytes
+        if (version == null) {
+            CompletedScorecardCache.FrozenScorecard frozen = completedScorecardCache.get(id);
+            if (frozen != null) {
+                if (request.checkNotModified(frozen.etag())) {
+                    return null;
+                }
+                
+                boolean gzip = acceptsGzip(acceptEncoding);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(frozen.etag())
+                        .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+                if (gzip) {
+                    return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(frozen.gzip());
+                }
+                return response.body(frozen.json());
+            }
+        }
+        
+        // Spring answers 304 itself when the ETag on the response matches
+        ScorecardDTO scorecard = liveScorecardService.getScorecard(id);
+        // The same URL answers gzip once the match completes, so caches must key on the encoding throughout
+        return ResponseEntity.ok()
+                .eTag(scorecardETag(scorecard.getVersion()))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .body(scorecard);
+    }
+    
+    @PutMapping("/{id}/scorecard")
+    @Operation(summary = "Correct completed scorecard", description = "Admin correction of a completed match's scorecard; only the supplied fields are changed")
+    public ResponseEntity<ScorecardDTO> correctScorecard(@PathVariable Long id, @RequestBody ScorecardDTO correction) {
+        MatchScorecard scorecard = matchService.correctScorecard(id, correction);
         return ResponseEntity.ok(new ScorecardDTO(scorecard));
     }
     
+    @GetMapping(value = "/{id}/scorecard", params = "since")
+    @Operation(summary = "Get scorecard changes", description = "Returns only the scorecard fields that changed since the given version")
+    public ResponseEntity<ScorecardDeltaDTO> getMatchScorecardDelta(@PathVariable Long id, @RequestParam Long since) {
+        ScorecardDeltaDTO delta = liveScorecardService.getScorecardDelta(id, since);
+        return ResponseEntity.ok().eTag(scorecardETag(delta.getVersion())).body(delta);
+    }
+    
+    @GetMapping("/{id}/scorecard/wait")
+    @Operation(summary = "Wait for the next change", description = "Long-polls until the match version passes the cursor, then returns the scorecard changes since it; 204 when the wait times out")
+    public DeferredResult<ResponseEntity<ScorecardDeltaDTO>> waitForScorecardChange(@PathVariable Long id,
+                                                                                    @RequestParam Long cursor,
+                                                                                    @RequestParam(required = false) Long timeoutMs) {
+        return matchWaitService.waitForChange(id, cursor, timeoutMs);
+    }
+    
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream match events", description = "Server-Sent Events stream of balls and undos as they are committed; send Last-Event-ID to resume after a reconnect")
+    public SseEmitter streamMatchEvents(@PathVariable Long id,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return matchEventService.subscribe(id, lastEventId);
+    }
+    
+    @GetMapping("/{id}/innings/{inningsNumber}/state")
+    @Operation(summary = "Get innings state", description = "Rebuilds the innings totals, batting card and bowling card, optionally as of a given ball sequence number")
+    public ResponseEntity<InningsStateDTO> getInningsState(@PathVariable Long id,
+                                                           @PathVariable Integer inningsNumber,
+                                                           @RequestParam(required = false) Long asOf) {
+        InningsStateDTO state = ballJournalService.getInningsState(id, inningsNumber, asOf);
+        return ResponseEntity.ok(state);
+    }
+    
+    @GetMapping("/{id}/innings/{inningsNumber}/partnerships")
+    @Operation(summary = "Get partnerships", description = "Lists every partnership of an innings with each batter's share of the runs")
+    public ResponseEntity<List<Map<String, Object>>> getPartnerships(@PathVariable Long id,
+                                                                     @PathVariable Integer inningsNumber) {
+        List<Map<String, Object>> partnerships = partnershipService.getPartnerships(id, inningsNumber);
+        return ResponseEntity.ok(partnerships);
+    }
+    
+    @GetMapping("/{id}/progression")
+    @Operation(summary = "Get over progression", description = "Per-over runs, cumulative runs, wickets and run rate of both innings for worm and manhattan charts")
+    public ResponseEntity<Map<String, Object>> getProgression(@PathVariable Long id) {
+        Map<String, Object> progression = matchProgressionService.getProgression(id);
+        return ResponseEntity.ok(progression);
+    }
+    
     @PostMapping("/{id}/start")
     @Operation(summary = "Start match", description = "Starts a match (changes status to IN_PROGRESS)")
     public ResponseEntity<MatchDTO> startMatch(@PathVariable Long id) {
@@ -85,26 +226,90 @@ public class MatchController {
     public ResponseEntity<BallDTO> addBall(@PathVariable Long id, 
                                          @PathVariable Integer inningsNumber,
                                          @Valid @RequestBody BallDTO ballDTO) {
-        Ball ball = new Ball();
-        ball.setRuns(ballDTO.getRuns());
-        ball.setIsWicket(ballDTO.getIsWicket());
-        ball.setWicketType(ballDTO.getWicketType());
-        ball.setExtraType(ballDTO.getExtraType());
-        ball.setExtraRuns(ballDTO.getExtraRuns());
-        ball.setIsWide(ballDTO.getIsWide());
-        ball.setIsNoBall(ballDTO.getIsNoBall());
-        ball.setIsBye(ballDTO.getIsBye());
-        ball.setIsLegBye(ballDTO.getIsLegBye());
+        Ball ball = toBall(ballDTO);
+        
+        try {
+            if (ballDTO.getDeliveryKey() != null) {
+                // Retries with the same key get the original response without touching the database
+                BallDTO addedBall = deliveryDedupeService.submitOnce(id, inningsNumber, ballDTO.getDeliveryKey(),
+                        () -> new BallDTO(ballIngestionService.addBall(id, inningsNumber, ball)));
+                return ResponseEntity.status(HttpStatus.CREATED).body(addedBall);
+            }
+            
+            Ball addedBall = ballIngestionService.addBall(id, inningsNumber, ball);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new BallDTO(addedBall));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        } catch (BallIngestionService.WriteOutcomeUnknownException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+    }
+    
+    @PostMapping("/{id}/innings/{inningsNumber}/balls/batch")
+    @Operation(summary = "Add balls to innings in bulk", description = "Adds an ordered batch of balls to an innings in one transaction, returning a result per ball")
+    public ResponseEntity<List<BallBatchResultDTO>> addBalls(@PathVariable Long id,
+                                                             @PathVariable Integer inningsNumber,
+                                                             @RequestBody List<BallDTO> ballDTOs) {
+        // Bean constraints first: a ball with missing fields cannot even be turned into an entity
+        List<String> constraintErrors = ballDTOs.stream()
+                .map(this::constraintViolations)
+                .collect(Collectors.toList());
+        if (constraintErrors.stream().anyMatch(error -> error != null)) {
+            return rejectBatch(ballDTOs, constraintErrors);
+        }
+        
+        List<Ball> balls = ballDTOs.stream()
+                .map(this::toBall)
+                .collect(Collectors.toList());
         
-        Ball addedBall = matchService.addBall(id, inningsNumber, ball);
-        return ResponseEntity.status(HttpStatus.CREATED).body(new BallDTO(addedBall));
+        // Validate everything up front so a bad ball rejects the batch before anything is written
+        List<String> errors = matchService.validateBalls(balls);
+        if (errors.stream().anyMatch(error -> error != null)) {
+            return rejectBatch(ballDTOs, errors);
+        }
+        
+        try {
+            List<Ball> addedBalls = ballIngestionService.addBalls(id, inningsNumber, balls);
+            List<BallBatchResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < addedBalls.size(); i++) {
+                // A different instance back means the delivery key was already stored
+                BallBatchResultDTO.BatchStatus status = addedBalls.get(i) == balls.get(i)
+                        ? BallBatchResultDTO.BatchStatus.CREATED
+                        : BallBatchResultDTO.BatchStatus.DUPLICATE;
+                results.add(new BallBatchResultDTO(i, status, null, new BallDTO(addedBalls.get(i))));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(results);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        } catch (BallIngestionService.WriteOutcomeUnknownException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
     }
     
     @PutMapping("/{id}/undo")
     @Operation(summary = "Undo last ball", description = "Undoes the last ball scored in the match")
     public ResponseEntity<Void> undoLastBall(@PathVariable Long id) {
-        matchService.undoLastBall(id);
-        return ResponseEntity.ok().build();
+        try {
+            ballIngestionService.undoLastBall(id);
+            return ResponseEntity.ok().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        } catch (BallIngestionService.WriteOutcomeUnknownException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+    }
+    
+    @PutMapping("/{id}/redo")
+    @Operation(summary = "Redo last undone ball", description = "Re-applies the most recently undone ball in the match")
+    public ResponseEntity<BallDTO> redoLastBall(@PathVariable Long id) {
+        try {
+            Ball redoneBall = ballIngestionService.redoLastBall(id);
+            return ResponseEntity.ok(new BallDTO(redoneBall));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        } catch (BallIngestionService.WriteOutcomeUnknownException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
     }
     
     @GetMapping("/{id}/man-of-the-match")
@@ -117,4 +322,101 @@ public class MatchController {
             return ResponseEntity.ok(Map.of("message", "No man of the match determined yet"));
         }
     }
+    
+    private ResponseEntity<List<BallBatchResultDTO>> rejectBatch(List<BallDTO> ballDTOs, List<String> errors) {
+        List<BallBatchResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < errors.size(); i++) {
+            BallBatchResultDTO.BatchStatus status = errors.get(i) != null
+                    ? BallBatchResultDTO.BatchStatus.REJECTED
+                    : BallBatchResultDTO.BatchStatus.NOT_APPLIED;
+            results.add(new BallBatchResultDTO(i, status, errors.get(i), ballDTOs.get(i)));
+        }
+        return ResponseEntity.badRequest().body(results);
+    }
+    
+    // Elements of a list body are not covered by @Valid, so each ball is checked here
+    private String constraintViolations(BallDTO ballDTO) {
+        if (ballDTO == null) {
+            return "Ball is required";
+        }
+        Set<ConstraintViolation<BallDTO>> violations = validator.validate(ballDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private Ball toBall(BallDTO ballDTO) {
+        Ball ball = new Ball();
+        ball.setDeliveryKey(ballDTO.getDeliveryKey());
+        ball.setBatsman(playerReference(ballDTO.getBatsmanId()));
+        ball.setBowler(playerReference(ballDTO.getBowlerId()));
+        ball.setRuns(ballDTO.getRuns());
+        ball.setIsWicket(ballDTO.getIsWicket());
+        ball.setWicketType(ballDTO.getWicketType());
+        ball.setExtraType(ballDTO.getExtraType());
+        ball.setExtraRuns(ballDTO.getExtraRuns());
+        ball.setIsWide(ballDTO.getIsWide());
+        ball.setIsNoBall(ballDTO.getIsNoBall());
+        ball.setIsBye(ballDTO.getIsBye());
+        ball.setIsLegBye(ballDTO.getIsLegBye());
+        return ball;
+    }
+    
+    private String scorecardETag(Long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * Whether an Accept-Encoding header allows gzip. An explicit gzip entry wins over "*", and
+     * either one with q=0 is a refusal.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        
+        Double gzip = null;
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // An unreadable weight is not taken as consent
+                        quality = 0.0;
+                    }
+                }
+            }
+            
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip != null ? Math.max(gzip, quality) : quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+    
+    // Players are resolved to managed references by MatchService
+    private Player playerReference(Long playerId) {
+        if (playerId == null) {
+            return null;
+        }
+        Player player = new Player();
+        player.setId(playerId);
+        return player;
+    }
 }
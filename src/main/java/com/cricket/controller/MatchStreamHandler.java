@@ -0,0 +1,65 @@
+package com.cricket.controller;
+
+import com.cricket.service.MatchStreamHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WebSocket endpoint for live viewers: /ws/matches/{id}?topics=balls,scorecard
+ */
+@Component
+public class MatchStreamHandler extends TextWebSocketHandler {
+    
+    private static final String SUBSCRIBER = "matchStreamSubscriber";
+    
+    @Autowired
+    private MatchStreamHub matchStreamHub;
+    
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        UriComponents uri = UriComponentsBuilder.fromUri(session.getUri()).build();
+        List<String> segments = uri.getPathSegments();
+        
+        Long matchId;
+        Set<MatchStreamHub.Topic> topics;
+        try {
+            matchId = Long.valueOf(segments.get(segments.size() - 1));
+            topics = parseTopics(uri.getQueryParams().getFirst("topics"));
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("Expected /ws/matches/{id}?topics=balls,scorecard"));
+            return;
+        }
+        
+        session.getAttributes().put(SUBSCRIBER, matchStreamHub.subscribe(matchId, session, topics));
+    }
+    
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Object subscriber = session.getAttributes().remove(SUBSCRIBER);
+        if (subscriber != null) {
+            matchStreamHub.unsubscribe((MatchStreamHub.Subscriber) subscriber);
+        }
+    }
+    
+    private Set<MatchStreamHub.Topic> parseTopics(String topics) {
+        if (topics == null || topics.isBlank()) {
+            return EnumSet.of(MatchStreamHub.Topic.BALLS, MatchStreamHub.Topic.SCORECARD);
+        }
+        
+        Set<MatchStreamHub.Topic> parsed = EnumSet.noneOf(MatchStreamHub.Topic.class);
+        for (String topic : topics.split(",")) {
+            parsed.add(MatchStreamHub.Topic.valueOf(topic.trim().toUpperCase()));
+        }
+        parsed.remove(MatchStreamHub.Topic.RESYNC);
+        return parsed;
+    }
+}
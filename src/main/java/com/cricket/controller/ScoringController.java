@@ -62,4 +62,11 @@ public class ScoringController {
         double netRunRate = scoringService.calculateNetRunRate(teamId, leagueId);
         return ResponseEntity.ok(Map.of("netRunRate", netRunRate));
     }
+    
+    @GetMapping("/leagues/{leagueId}/net-run-rates")
+    @Operation(summary = "Get league net run rates", description = "Calculates net run rate for every team in a league")
+    public ResponseEntity<Map<Long, Double>> getLeagueNetRunRates(@PathVariable Long leagueId) {
+        Map<Long, Double> netRunRates = scoringService.calculateNetRunRates(leagueId);
+        return ResponseEntity.ok(netRunRates);
+    }
 }
@@ -1,5 +1,6 @@
 package com.cricket.controller;
 
+import com.cricket.service.LiveLeaderboardService;
 import com.cricket.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +19,9 @@ public class StatisticsController {
     @Autowired
     private StatisticsService statisticsService;
     
+    @Autowired
+    private LiveLeaderboardService liveLeaderboardService;
+    
     @GetMapping("/players/{playerId}/batting")
     @Operation(summary = "Get player batting statistics", description = "Retrieves batting statistics for a specific player")
     public ResponseEntity<Map<String, Object>> getPlayerBattingStats(@PathVariable Long playerId) {
@@ -46,6 +50,25 @@ public class StatisticsController {
         return ResponseEntity.ok(leaderboard);
     }
     
+    @GetMapping("/leagues/{leagueId}/live-leaderboards/{category}")
+    @Operation(summary = "Get live leaderboard", description = "Retrieves the top players by runs or wickets, updated ball by ball")
+    public ResponseEntity<List<Map<String, Object>>> getLiveLeaderboard(@PathVariable Long leagueId,
+                                                                        @PathVariable String category,
+                                                                        @RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> leaderboard = liveLeaderboardService.getTop(leagueId, LiveLeaderboardService.Category.valueOf(category.toUpperCase()), limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+    
+    @GetMapping("/leagues/{leagueId}/live-leaderboards/{category}/players/{playerId}")
+    @Operation(summary = "Get player live rank", description = "Retrieves a player's live rank by runs or wickets with the players around them")
+    public ResponseEntity<Map<String, Object>> getPlayerLiveRank(@PathVariable Long leagueId,
+                                                                 @PathVariable String category,
+                                                                 @PathVariable Long playerId,
+                                                                 @RequestParam(defaultValue = "2") int window) {
+        Map<String, Object> rank = liveLeaderboardService.getPlayerRank(leagueId, LiveLeaderboardService.Category.valueOf(category.toUpperCase()), playerId, window);
+        return ResponseEntity.ok(rank);
+    }
+    
     @GetMapping("/teams/{teamId}/stats")
     @Operation(summary = "Get team statistics", description = "Retrieves overall statistics for a specific team")
     public ResponseEntity<Map<String, Object>> getTeamStats(@PathVariable Long teamId) {
@@ -53,6 +76,13 @@ public class StatisticsController {
         return ResponseEntity.ok(stats);
     }
     
+    @GetMapping("/leagues/{leagueId}/team-stats")
+    @Operation(summary = "Get league team statistics", description = "Retrieves batting and bowling totals for every team in a league")
+    public ResponseEntity<List<Map<String, Object>>> getLeagueTeamStats(@PathVariable Long leagueId) {
+        List<Map<String, Object>> stats = statisticsService.getLeagueTeamStats(leagueId);
+        return ResponseEntity.ok(stats);
+    }
+    
     @GetMapping("/leagues/{leagueId}/standings")
     @Operation(summary = "Get league standings", description = "Retrieves the points table for a specific league")
     public ResponseEntity<List<Map<String, Object>>> getLeagueStandings(@PathVariable Long leagueId) {
@@ -0,0 +1,58 @@
+package com.cricket.dto;
+
+public class BallBatchResultDTO {
+    
+    private Integer index;
+    
+    private BatchStatus status;
+    
+    private String error;
+    
+    private BallDTO ball;
+    
+    public BallBatchResultDTO() {}
+    
+    public BallBatchResultDTO(Integer index, BatchStatus status, String error, BallDTO ball) {
+        this.index = index;
+        this.status = status;
+        this.error = error;
+        this.ball = ball;
+    }
+    
+    // Getters and Setters
+    public Integer getIndex() {
+        return index;
+    }
+    
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+    
+    public BatchStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BatchStatus status) {
+        this.status = status;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public BallDTO getBall() {
+        return ball;
+    }
+    
+    public void setBall(BallDTO ball) {
+        this.ball = ball;
+    }
+    
+    public enum BatchStatus {
+        CREATED, DUPLICATE, REJECTED, NOT_APPLIED
+    }
+}
@@ -2,39 +2,52 @@ package com.cricket.dto;
 
 import com.cricket.entity.Ball;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class BallDTO {
     
     private Long id;
     
+    // Optional client-chosen key, unique per innings, that makes retried submissions safe
+    @Size(max = 64, message = "Delivery key must be at most 64 characters")
+    private String deliveryKey;
+    
     @NotNull(message = "Batsman ID is required")
     private Long batsmanId;
     
     @NotNull(message = "Bowler ID is required")
     private Long bowlerId;
     
+    @NotNull(message = "Runs are required")
     private Integer runs = 0;
     
+    @NotNull(message = "Wicket flag is required")
     private Boolean isWicket = false;
     
     private Ball.WicketType wicketType;
     
     private Ball.ExtraType extraType;
     
+    @NotNull(message = "Extra runs are required")
     private Integer extraRuns = 0;
     
+    @NotNull(message = "Wide flag is required")
     private Boolean isWide = false;
     
+    @NotNull(message = "No-ball flag is required")
     private Boolean isNoBall = false;
     
+    @NotNull(message = "Bye flag is required")
     private Boolean isBye = false;
     
+    @NotNull(message = "Leg-bye flag is required")
     private Boolean isLegBye = false;
     
     public BallDTO() {}
     
     public BallDTO(Ball ball) {
         this.id = ball.getId();
+        this.deliveryKey = ball.getDeliveryKey();
         this.batsmanId = ball.getBatsman().getId();
         this.bowlerId = ball.getBowler().getId();
         this.runs = ball.getRuns();
@@ -57,6 +70,14 @@ public class BallDTO {
         this.id = id;
     }
     
+    public String getDeliveryKey() {
+        return deliveryKey;
+    }
+    
+    public void setDeliveryKey(String deliveryKey) {
+        this.deliveryKey = deliveryKey;
+    }
+    
     public Long getBatsmanId() {
         return batsmanId;
     }
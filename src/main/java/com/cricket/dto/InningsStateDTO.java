@@ -0,0 +1,198 @@
+package com.cricket.dto;
+
+import com.cricket.entity.Ball;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class InningsStateDTO {
+    
+    private Long inningsId;
+    
+    private Integer inningsNumber;
+    
+    // Sequence number of the last ball folded into this state (0 before the first ball)
+    private Long sequenceNumber = 0L;
+    
+    private Integer totalRuns = 0;
+    
+    private Integer wickets = 0;
+    
+    private Integer legalBalls = 0;
+    
+    private Integer extras = 0;
+    
+    // Keyed by player id, in order of first appearance
+    private Map<Long, BatterLine> batting = new LinkedHashMap<>();
+    
+    private Map<Long, BowlerLine> bowling = new LinkedHashMap<>();
+    
+    public InningsStateDTO() {}
+    
+    public InningsStateDTO(Long inningsId, Integer inningsNumber) {
+        this.inningsId = inningsId;
+        this.inningsNumber = inningsNumber;
+    }
+    
+    // Getters and Setters
+    public Long getInningsId() {
+        return inningsId;
+    }
+    
+    public void setInningsId(Long inningsId) {
+        this.inningsId = inningsId;
+    }
+    
+    public Integer getInningsNumber() {
+        return inningsNumber;
+    }
+    
+    public void setInningsNumber(Integer inningsNumber) {
+        this.inningsNumber = inningsNumber;
+    }
+    
+    public Long getSequenceNumber() {
+        return sequenceNumber;
+    }
+    
+    public void setSequenceNumber(Long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+    
+    public Integer getTotalRuns() {
+        return totalRuns;
+    }
+    
+    public void setTotalRuns(Integer totalRuns) {
+        this.totalRuns = totalRuns;
+    }
+    
+    public Integer getWickets() {
+        return wickets;
+    }
+    
+    public void setWickets(Integer wickets) {
+        this.wickets = wickets;
+    }
+    
+    public Integer getLegalBalls() {
+        return legalBalls;
+    }
+    
+    public void setLegalBalls(Integer legalBalls) {
+        this.legalBalls = legalBalls;
+    }
+    
+    public Integer getExtras() {
+        return extras;
+    }
+    
+    public void setExtras(Integer extras) {
+        this.extras = extras;
+    }
+    
+    public Map<Long, BatterLine> getBatting() {
+        return batting;
+    }
+    
+    public void setBatting(Map<Long, BatterLine> batting) {
+        this.batting = batting;
+    }
+    
+    public Map<Long, BowlerLine> getBowling() {
+        return bowling;
+    }
+    
+    public void setBowling(Map<Long, BowlerLine> bowling) {
+        this.bowling = bowling;
+    }
+    
+    public static class BatterLine {
+        
+        private Integer runs = 0;
+        private Integer balls = 0;
+        private Integer fours = 0;
+        private Integer sixes = 0;
+        private Boolean out = false;
+        private Ball.WicketType dismissal;
+        
+        public Integer getRuns() {
+            return runs;
+        }
+        
+        public void setRuns(Integer runs) {
+            this.runs = runs;
+        }
+        
+        public Integer getBalls() {
+            return balls;
+        }
+        
+        public void setBalls(Integer balls) {
+            this.balls = balls;
+        }
+        
+        public Integer getFours() {
+            return fours;
+        }
+        
+        public void setFours(Integer fours) {
+            this.fours = fours;
+        }
+        
+        public Integer getSixes() {
+            return sixes;
+        }
+        
+        public void setSixes(Integer sixes) {
+            this.sixes = sixes;
+        }
+        
+        public Boolean getOut() {
+            return out;
+        }
+        
+        public void setOut(Boolean out) {
+            this.out = out;
+        }
+        
+        public Ball.WicketType getDismissal() {
+            return dismissal;
+        }
+        
+        public void setDismissal(Ball.WicketType dismissal) {
+            this.dismissal = dismissal;
+        }
+    }
+    
+    public static class BowlerLine {
+        
+        private Integer legalBalls = 0;
+        private Integer runsConceded = 0;
+        private Integer wickets = 0;
+        
+        public Integer getLegalBalls() {
+            return legalBalls;
+        }
+        
+        public void setLegalBalls(Integer legalBalls) {
+            this.legalBalls = legalBalls;
+        }
+        
+        public Integer getRunsConceded() {
+            return runsConceded;
+        }
+        
+        public void setRunsConceded(Integer runsConceded) {
+            this.runsConceded = runsConceded;
+        }
+        
+        public Integer getWickets() {
+            return wickets;
+        }
+        
+        public void setWickets(Integer wickets) {
+            this.wickets = wickets;
+        }
+    }
+}
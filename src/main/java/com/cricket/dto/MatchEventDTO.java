@@ -0,0 +1,162 @@
+package com.cricket.dto;
+
+import com.cricket.entity.Ball;
+import com.cricket.entity.Innings;
+
+public class MatchEventDTO {
+    
+    private Long matchId;
+    
+    private Long leagueId;
+    
+    // Match state version after the change; used as the SSE event id
+    private Long sequence;
+    
+    private EventType type;
+    
+    private Long inningsId;
+    
+    private Integer inningsNumber;
+    
+    private Long battingTeamId;
+    
+    private Integer overNumber;
+    
+    private Integer ballNumber;
+    
+    private BallDTO ball;
+    
+    // Innings totals after the change, i.e. the part of the scorecard that moved
+    private Integer totalRuns;
+    
+    private Integer wickets;
+    
+    private Double overs;
+    
+    public MatchEventDTO() {}
+    
+    public MatchEventDTO(EventType type, Long sequence, Innings innings, Ball ball) {
+        this.matchId = innings.getMatch().getId();
+        this.leagueId = innings.getMatch().getLeague().getId();
+        this.sequence = sequence;
+        this.type = type;
+        this.inningsId = innings.getId();
+        this.inningsNumber = innings.getInningsNumber();
+        this.battingTeamId = innings.getBattingTeam().getId();
+        this.overNumber = ball.getOverNumber();
+        this.ballNumber = ball.getBallNumber();
+        this.ball = new BallDTO(ball);
+        this.totalRuns = innings.getTotalRuns();
+        this.wickets = innings.getWickets();
+        this.overs = innings.getOvers();
+    }
+    
+    // Getters and Setters
+    public Long getMatchId() {
+        return matchId;
+    }
+    
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+    
+    public Long getLeagueId() {
+        return leagueId;
+    }
+    
+    public void setLeagueId(Long leagueId) {
+        this.leagueId = leagueId;
+    }
+    
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public EventType getType() {
+        return type;
+    }
+    
+    public void setType(EventType type) {
+        this.type = type;
+    }
+    
+    public Long getInningsId() {
+        return inningsId;
+    }
+    
+    public void setInningsId(Long inningsId) {
+        this.inningsId = inningsId;
+    }
+    
+    public Integer getInningsNumber() {
+        return inningsNumber;
+    }
+    
+    public void setInningsNumber(Integer inningsNumber) {
+        this.inningsNumber = inningsNumber;
+    }
+    
+    public Long getBattingTeamId() {
+        return battingTeamId;
+    }
+    
+    public void setBattingTeamId(Long battingTeamId) {
+        this.battingTeamId = battingTeamId;
+    }
+    
+    public Integer getOverNumber() {
+        return overNumber;
+    }
+    
+    public void setOverNumber(Integer overNumber) {
+        this.overNumber = overNumber;
+    }
+    
+    public Integer getBallNumber() {
+        return ballNumber;
+    }
+    
+    public void setBallNumber(Integer ballNumber) {
+        this.ballNumber = ballNumber;
+    }
+    
+    public BallDTO getBall() {
+        return ball;
+    }
+    
+    public void setBall(BallDTO ball) {
+        this.ball = ball;
+    }
+    
+    public Integer getTotalRuns() {
+        return totalRuns;
+    }
+    
+    public void setTotalRuns(Integer totalRuns) {
+        this.totalRuns = totalRuns;
+    }
+    
+    public Integer getWickets() {
+        return wickets;
+    }
+    
+    public void setWickets(Integer wickets) {
+        this.wickets = wickets;
+    }
+    
+    public Double getOvers() {
+        return overs;
+    }
+    
+    public void setOvers(Double overs) {
+        this.overs = overs;
+    }
+    
+    public enum EventType {
+        BALL, UNDO
+    }
+}
@@ -12,6 +12,9 @@ public class ScorecardDTO {
     @NotNull(message = "Match ID is required")
     private Long matchId;
     
+    // Match state version this scorecard reflects; served as the ETag
+    private Long version;
+    
     private Integer team1Runs;
     private Integer team1Wickets;
     private Double team1Overs;
@@ -44,6 +47,7 @@ public class ScorecardDTO {
         // Safe access to team names with null checks
         if (scorecard.getMatch() != null) {
             Match match = scorecard.getMatch();
+            this.version = match.getStateVersion();
             this.team1Name = getTeamName(match.getTeam1());
             this.team2Name = getTeamName(match.getTeam2());
             
@@ -58,6 +62,25 @@ public class ScorecardDTO {
         }
     }
     
+    public ScorecardDTO(ScorecardDTO other) {
+        this.id = other.id;
+        this.matchId = other.matchId;
+        this.version = other.version;
+        this.team1Runs = other.team1Runs;
+        this.team1Wickets = other.team1Wickets;
+        this.team1Overs = other.team1Overs;
+        this.team2Runs = other.team2Runs;
+        this.team2Wickets = other.team2Wickets;
+        this.team2Overs = other.team2Overs;
+        this.winningTeamId = other.winningTeamId;
+        this.winMargin = other.winMargin;
+        this.manOfTheMatchId = other.manOfTheMatchId;
+        this.team1Name = other.team1Name;
+        this.team2Name = other.team2Name;
+        this.winningTeamName = other.winningTeamName;
+        this.manOfTheMatchName = other.manOfTheMatchName;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -75,6 +98,14 @@ public class ScorecardDTO {
         this.matchId = matchId;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Integer getTeam1Runs() {
         return team1Runs;
     }
@@ -0,0 +1,68 @@
+package com.cricket.dto;
+
+import java.util.Map;
+
+public class ScorecardDeltaDTO {
+    
+    private Long matchId;
+    
+    private Long since;
+    
+    private Long version;
+    
+    // True when the requested base version is no longer known and changes holds every field
+    private Boolean full = false;
+    
+    private Map<String, Object> changes;
+    
+    public ScorecardDeltaDTO() {}
+    
+    public ScorecardDeltaDTO(Long matchId, Long since, Long version, Boolean full, Map<String, Object> changes) {
+        this.matchId = matchId;
+        this.since = since;
+        this.version = version;
+        this.full = full;
+        this.changes = changes;
+    }
+    
+    // Getters and Setters
+    public Long getMatchId() {
+        return matchId;
+    }
+    
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+    
+    public Long getSince() {
+        return since;
+    }
+    
+    public void setSince(Long since) {
+        this.since = since;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Boolean getFull() {
+        return full;
+    }
+    
+    public void setFull(Boolean full) {
+        this.full = full;
+    }
+    
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(Map<String, Object> changes) {
+        this.changes = changes;
+    }
+}
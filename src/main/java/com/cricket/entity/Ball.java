@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class Ball {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balls_id_seq")
+    @SequenceGenerator(name = "balls_id_seq", sequenceName = "balls_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Innings is required")
@@ -23,6 +24,12 @@ public class Ball {
     @Column(name = "ball_number", nullable = false)
     private Integer ballNumber;
     
+    @Column(name = "sequence_number", nullable = false)
+    private Long sequenceNumber;
+    
+    @Column(name = "delivery_key", length = 64)
+    private String deliveryKey;
+    
     @NotNull(message = "Batsman is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "batsman_id", nullable = false)
@@ -122,6 +129,22 @@ public class Ball {
         this.ballNumber = ballNumber;
     }
     
+    public Long getSequenceNumber() {
+        return sequenceNumber;
+    }
+    
+    public void setSequenceNumber(Long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+    
+    public String getDeliveryKey() {
+        return deliveryKey;
+    }
+    
+    public void setDeliveryKey(String deliveryKey) {
+        this.deliveryKey = deliveryKey;
+    }
+    
     public Player getBatsman() {
         return batsman;
     }
@@ -11,7 +11,8 @@ import java.util.List;
 public class Innings {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "innings_id_seq")
+    @SequenceGenerator(name = "innings_id_seq", sequenceName = "innings_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Match is required")
@@ -41,6 +42,9 @@ public class Innings {
     @Column(name = "overs", nullable = false)
     private Double overs = 0.0;
     
+    @Column(name = "legal_balls", nullable = false)
+    private Integer legalBalls = 0;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private InningsStatus status = InningsStatus.NOT_STARTED;
@@ -140,6 +144,14 @@ public class Innings {
         this.overs = overs;
     }
     
+    public Integer getLegalBalls() {
+        return legalBalls;
+    }
+    
+    public void setLegalBalls(Integer legalBalls) {
+        this.legalBalls = legalBalls;
+    }
+    
     public InningsStatus getStatus() {
         return status;
     }
@@ -0,0 +1,120 @@
+package com.cricket.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "innings_snapshots")
+public class InningsSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull(message = "Innings is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "innings_id", nullable = false)
+    private Innings innings;
+    
+    @Column(name = "sequence_number", nullable = false)
+    private Long sequenceNumber;
+    
+    @Column(name = "total_runs", nullable = false)
+    private Integer totalRuns;
+    
+    @Column(nullable = false)
+    private Integer wickets;
+    
+    @Column(name = "legal_balls", nullable = false)
+    private Integer legalBalls;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String state;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public InningsSnapshot() {}
+    
+    public InningsSnapshot(Innings innings, Long sequenceNumber, Integer totalRuns, Integer wickets,
+                           Integer legalBalls, String state) {
+        this.innings = innings;
+        this.sequenceNumber = sequenceNumber;
+        this.totalRuns = totalRuns;
+        this.wickets = wickets;
+        this.legalBalls = legalBalls;
+        this.state = state;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Innings getInnings() {
+        return innings;
+    }
+    
+    public void setInnings(Innings innings) {
+        this.innings = innings;
+    }
+    
+    public Long getSequenceNumber() {
+        return sequenceNumber;
+    }
+    
+    public void setSequenceNumber(Long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+    
+    public Integer getTotalRuns() {
+        return totalRuns;
+    }
+    
+    public void setTotalRuns(Integer totalRuns) {
+        this.totalRuns = totalRuns;
+    }
+    
+    public Integer getWickets() {
+        return wickets;
+    }
+    
+    public void setWickets(Integer wickets) {
+        this.wickets = wickets;
+    }
+    
+    public Integer getLegalBalls() {
+        return legalBalls;
+    }
+    
+    public void setLegalBalls(Integer legalBalls) {
+        this.legalBalls = legalBalls;
+    }
+    
+    public String getState() {
+        return state;
+    }
+    
+    public void setState(String state) {
+        this.state = state;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -43,6 +43,9 @@ public class Match {
     @Column(nullable = false)
     private MatchStatus status = MatchStatus.SCHEDULED;
     
+    @Column(name = "state_version", nullable = false)
+    private Long stateVersion = 0L;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -134,6 +137,14 @@ public class Match {
         this.status = status;
     }
     
+    public Long getStateVersion() {
+        return stateVersion;
+    }
+    
+    public void setStateVersion(Long stateVersion) {
+        this.stateVersion = stateVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
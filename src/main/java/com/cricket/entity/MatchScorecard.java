@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class MatchScorecard {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_scorecards_id_seq")
+    @SequenceGenerator(name = "match_scorecards_id_seq", sequenceName = "match_scorecards_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Match is required")
@@ -44,6 +45,10 @@ public class MatchScorecard {
     @Column(name = "man_of_the_match_id")
     private Long manOfTheMatchId;
     
+    // Match state version these figures reflect
+    @Column(name = "state_version", nullable = false)
+    private Long stateVersion = 0L;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -157,6 +162,14 @@ public class MatchScorecard {
         this.manOfTheMatchId = manOfTheMatchId;
     }
     
+    public Long getStateVersion() {
+        return stateVersion;
+    }
+    
+    public void setStateVersion(Long stateVersion) {
+        this.stateVersion = stateVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
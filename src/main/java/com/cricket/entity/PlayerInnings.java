@@ -0,0 +1,179 @@
+package com.cricket.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * One player's batting and bowling figures in one innings, kept up to date as balls are
+ * added and undone
+ */
+@Entity
+@Table(name = "player_innings")
+public class PlayerInnings {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_innings_id_seq")
+    @SequenceGenerator(name = "player_innings_id_seq", sequenceName = "player_innings_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @NotNull(message = "Innings is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "innings_id", nullable = false)
+    private Innings innings;
+    
+    @NotNull(message = "Player is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "player_id", nullable = false)
+    private Player player;
+    
+    @Column(nullable = false)
+    private Integer runs = 0;
+    
+    @Column(name = "balls_faced", nullable = false)
+    private Integer ballsFaced = 0;
+    
+    @Column(nullable = false)
+    private Integer fours = 0;
+    
+    @Column(nullable = false)
+    private Integer sixes = 0;
+    
+    @Column(name = "is_out", nullable = false)
+    private Boolean isOut = false;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dismissal")
+    private Ball.WicketType dismissal;
+    
+    @Column(name = "legal_balls_bowled", nullable = false)
+    private Integer legalBallsBowled = 0;
+    
+    @Column(name = "runs_conceded", nullable = false)
+    private Integer runsConceded = 0;
+    
+    @Column(nullable = false)
+    private Integer wickets = 0;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public PlayerInnings() {}
+    
+    public PlayerInnings(Innings innings, Player player) {
+        this.innings = innings;
+        this.player = player;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Innings getInnings() {
+        return innings;
+    }
+    
+    public void setInnings(Innings innings) {
+        this.innings = innings;
+    }
+    
+    public Player getPlayer() {
+        return player;
+    }
+    
+    public void setPlayer(Player player) {
+        this.player = player;
+    }
+    
+    public Integer getRuns() {
+        return runs;
+    }
+    
+    public void setRuns(Integer runs) {
+        this.runs = runs;
+    }
+    
+    public Integer getBallsFaced() {
+        return ballsFaced;
+    }
+    
+    public void setBallsFaced(Integer ballsFaced) {
+        this.ballsFaced = ballsFaced;
+    }
+    
+    public Integer getFours() {
+        return fours;
+    }
+    
+    public void setFours(Integer fours) {
+        this.fours = fours;
+    }
+    
+    public Integer getSixes() {
+        return sixes;
+    }
+    
+    public void setSixes(Integer sixes) {
+        this.sixes = sixes;
+    }
+    
+    public Boolean getIsOut() {
+        return isOut;
+    }
+    
+    public void setIsOut(Boolean isOut) {
+        this.isOut = isOut;
+    }
+    
+    public Ball.WicketType getDismissal() {
+        return dismissal;
+    }
+    
+    public void setDismissal(Ball.WicketType dismissal) {
+        this.dismissal = dismissal;
+    }
+    
+    public Integer getLegalBallsBowled() {
+        return legalBallsBowled;
+    }
+    
+    public void setLegalBallsBowled(Integer legalBallsBowled) {
+        this.legalBallsBowled = legalBallsBowled;
+    }
+    
+    public Integer getRunsConceded() {
+        return runsConceded;
+    }
+    
+    public void setRunsConceded(Integer runsConceded) {
+        this.runsConceded = runsConceded;
+    }
+    
+    public Integer getWickets() {
+        return wickets;
+    }
+    
+    public void setWickets(Integer wickets) {
+        this.wickets = wickets;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
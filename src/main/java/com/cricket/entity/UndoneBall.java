@@ -0,0 +1,220 @@
+package com.cricket.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "undone_balls")
+public class UndoneBall {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull(message = "Match is required")
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+    
+    @Column(name = "innings_number", nullable = false)
+    private Integer inningsNumber;
+    
+    @Column(name = "delivery_key", length = 64)
+    private String deliveryKey;
+    
+    @NotNull(message = "Batsman is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batsman_id", nullable = false)
+    private Player batsman;
+    
+    @NotNull(message = "Bowler is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bowler_id", nullable = false)
+    private Player bowler;
+    
+    @Column(nullable = false)
+    private Integer runs = 0;
+    
+    @Column(name = "is_wicket", nullable = false)
+    private Boolean isWicket = false;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "wicket_type")
+    private Ball.WicketType wicketType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "extra_type")
+    private Ball.ExtraType extraType;
+    
+    @Column(name = "extra_runs")
+    private Integer extraRuns = 0;
+    
+    @Column(name = "is_wide")
+    private Boolean isWide = false;
+    
+    @Column(name = "is_no_ball")
+    private Boolean isNoBall = false;
+    
+    @Column(name = "is_bye")
+    private Boolean isBye = false;
+    
+    @Column(name = "is_leg_bye")
+    private Boolean isLegBye = false;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public UndoneBall() {}
+    
+    public UndoneBall(Long matchId, Ball ball) {
+        this.matchId = matchId;
+        this.inningsNumber = ball.getInnings().getInningsNumber();
+        this.deliveryKey = ball.getDeliveryKey();
+        this.batsman = ball.getBatsman();
+        this.bowler = ball.getBowler();
+        this.runs = ball.getRuns();
+        this.isWicket = ball.getIsWicket();
+        this.wicketType = ball.getWicketType();
+        this.extraType = ball.getExtraType();
+        this.extraRuns = ball.getExtraRuns();
+        this.isWide = ball.getIsWide();
+        this.isNoBall = ball.getIsNoBall();
+        this.isBye = ball.getIsBye();
+        this.isLegBye = ball.getIsLegBye();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getMatchId() {
+        return matchId;
+    }
+    
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+    
+    public Integer getInningsNumber() {
+        return inningsNumber;
+    }
+    
+    public void setInningsNumber(Integer inningsNumber) {
+        this.inningsNumber = inningsNumber;
+    }
+    
+    public Player getBatsman() {
+        return batsman;
+    }
+    
+    public void setBatsman(Player batsman) {
+        this.batsman = batsman;
+    }
+    
+    public Player getBowler() {
+        return bowler;
+    }
+    
+    public void setBowler(Player bowler) {
+        this.bowler = bowler;
+    }
+    
+    public Integer getRuns() {
+        return runs;
+    }
+    
+    public void setRuns(Integer runs) {
+        this.runs = runs;
+    }
+    
+    public Boolean getIsWicket() {
+        return isWicket;
+    }
+    
+    public void setIsWicket(Boolean isWicket) {
+        this.isWicket = isWicket;
+    }
+    
+    public Ball.WicketType getWicketType() {
+        return wicketType;
+    }
+    
+    public void setWicketType(Ball.WicketType wicketType) {
+        this.wicketType = wicketType;
+    }
+    
+    public Ball.ExtraType getExtraType() {
+        return extraType;
+    }
+    
+    public void setExtraType(Ball.ExtraType extraType) {
+        this.extraType = extraType;
+    }
+    
+    public Integer getExtraRuns() {
+        return extraRuns;
+    }
+    
+    public void setExtraRuns(Integer extraRuns) {
+        this.extraRuns = extraRuns;
+    }
+    
+    public Boolean getIsWide() {
+        return isWide;
+    }
+    
+    public void setIsWide(Boolean isWide) {
+        this.isWide = isWide;
+    }
+    
+    public Boolean getIsNoBall() {
+        return isNoBall;
+    }
+    
+    public void setIsNoBall(Boolean isNoBall) {
+        this.isNoBall = isNoBall;
+    }
+    
+    public Boolean getIsBye() {
+        return isBye;
+    }
+    
+    public void setIsBye(Boolean isBye) {
+        this.isBye = isBye;
+    }
+    
+    public String getDeliveryKey() {
+        return deliveryKey;
+    }
+    
+    public void setDeliveryKey(String deliveryKey) {
+        this.deliveryKey = deliveryKey;
+    }
+    
+    public Boolean getIsLegBye() {
+        return isLegBye;
+    }
+    
+    public void setIsLegBye(Boolean isLegBye) {
+        this.isLegBye = isLegBye;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
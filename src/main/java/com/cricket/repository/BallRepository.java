@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +15,7 @@ public interface BallRepository extends JpaRepository<Ball, Long> {
     
     List<Ball> findByInningsId(Long inningsId);
     
-    @Query("SELECT b FROM Ball b WHERE b.innings.id = :inningsId ORDER BY b.overNumber, b.ballNumber")
+    @Query("SELECT b FROM Ball b WHERE b.innings.id = :inningsId ORDER BY b.overNumber, b.ballNumber, b.id")
     List<Ball> findByInningsIdOrderByOverAndBall(@Param("inningsId") Long inningsId);
     
     @Query("SELECT b FROM Ball b WHERE b.batsman.id = :playerId")
@@ -37,4 +38,21 @@ public interface BallRepository extends JpaRepository<Ball, Long> {
     
     @Query("SELECT b FROM Ball b WHERE b.innings.id = :inningsId ORDER BY b.createdAt DESC LIMIT 1")
     Optional<Ball> findLastBallByInningsId(@Param("inningsId") Long inningsId);
+    
+    Optional<Ball> findByInningsIdAndDeliveryKey(Long inningsId, String deliveryKey);
+    
+    List<Ball> findByInningsIdAndDeliveryKeyIn(Long inningsId, Collection<String> deliveryKeys);
+    
+    @Query("SELECT b FROM Ball b WHERE b.innings.id = :inningsId AND b.sequenceNumber > :afterSequence " +
+           "AND b.sequenceNumber <= :upToSequence ORDER BY b.sequenceNumber")
+    List<Ball> findJournalTail(@Param("inningsId") Long inningsId,
+                               @Param("afterSequence") Long afterSequence,
+                               @Param("upToSequence") Long upToSequence);
+    
+    // Every ball of a match in the order it was bowled, with its innings
+    @Query("SELECT b FROM Ball b JOIN FETCH b.innings i WHERE i.match.id = :matchId ORDER BY b.sequenceNumber")
+    List<Ball> findByMatchIdOrderBySequence(@Param("matchId") Long matchId);
+    
+    @Query("SELECT b FROM Ball b WHERE b.innings.match.id = :matchId ORDER BY b.sequenceNumber DESC LIMIT 1")
+    Optional<Ball> findLastBallByMatchId(@Param("matchId") Long matchId);
 }
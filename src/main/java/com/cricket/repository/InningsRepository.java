@@ -1,7 +1,9 @@
 package com.cricket.repository;
 
 import com.cricket.entity.Innings;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,10 +14,27 @@ import java.util.Optional;
 @Repository
 public interface InningsRepository extends JpaRepository<Innings, Long> {
     
+    // Net run rate inputs of team t from innings i; a side bowled out is charged its full quota of balls
+    String RUN_RATE_COLUMNS =
+            "CAST(COALESCE(SUM(i.total_runs) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"runsScored\", " +
+            "CAST(COALESCE(SUM(CASE WHEN i.wickets >= 10 THEN :quotaBalls ELSE i.legal_balls END) " +
+            "FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"ballsFaced\", " +
+            "CAST(COALESCE(SUM(i.total_runs) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"runsConceded\", " +
+            "CAST(COALESCE(SUM(CASE WHEN i.wickets >= 10 THEN :quotaBalls ELSE i.legal_balls END) " +
+            "FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"ballsBowled\" ";
+    
     List<Innings> findByMatchId(Long matchId);
     
     Optional<Innings> findByMatchIdAndInningsNumber(Long matchId, Integer inningsNumber);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Innings i WHERE i.match.id = :matchId AND i.inningsNumber = :inningsNumber")
+    Optional<Innings> findByMatchIdAndInningsNumberForUpdate(@Param("matchId") Long matchId, @Param("inningsNumber") Integer inningsNumber);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Innings i WHERE i.match.id = :matchId ORDER BY i.inningsNumber")
+    List<Innings> findByMatchIdForUpdate(@Param("matchId") Long matchId);
+    
     @Query("SELECT i FROM Innings i WHERE i.match.id = :matchId ORDER BY i.inningsNumber")
     List<Innings> findByMatchIdOrderByInningsNumber(@Param("matchId") Long matchId);
     
@@ -24,4 +43,70 @@ public interface InningsRepository extends JpaRepository<Innings, Long> {
     
     @Query("SELECT i FROM Innings i WHERE i.bowlingTeam.id = :teamId")
     List<Innings> findByBowlingTeamId(@Param("teamId") Long teamId);
+    
+    // Net run rate inputs of every team in a league, from its completed matches that produced a
+    // result; a match with no winner where a side never batted was abandoned and does not count
+    @Query(value = "SELECT t.id AS \"teamId\", " + RUN_RATE_COLUMNS +
+           "FROM teams t " +
+           "LEFT JOIN (innings i " +
+           "JOIN matches m ON m.id = i.match_id AND m.league_id = :leagueId AND m.status = 'COMPLETED' " +
+           "JOIN match_scorecards s ON s.match_id = m.id " +
+           "AND (s.winning_team_id IS NOT NULL OR (s.team1_overs > 0 AND s.team2_overs > 0))) " +
+           "ON i.batting_team_id = t.id OR i.bowling_team_id = t.id " +
+           "WHERE t.league_id = :leagueId " +
+           "GROUP BY t.id",
+           nativeQuery = true)
+    List<TeamRunRateTotals> findRunRateTotalsByLeagueId(@Param("leagueId") Long leagueId,
+                                                        @Param("quotaBalls") int quotaBalls);
+    
+    // The same inputs for both teams of every completed match of a league, whatever its result,
+    // so a standings table can count or drop each match on its own
+    @Query(value = "SELECT i.match_id AS \"matchId\", t.id AS \"teamId\", " + RUN_RATE_COLUMNS +
+           "FROM innings i " +
+           "JOIN matches m ON m.id = i.match_id AND m.league_id = :leagueId AND m.status = 'COMPLETED' " +
+           "JOIN teams t ON t.id = i.batting_team_id OR t.id = i.bowling_team_id " +
+           "GROUP BY i.match_id, t.id",
+           nativeQuery = true)
+    List<MatchRunRateTotals> findMatchRunRateTotalsByLeagueId(@Param("leagueId") Long leagueId,
+                                                              @Param("quotaBalls") int quotaBalls);
+    
+    @Query(value = "SELECT i.match_id AS \"matchId\", t.id AS \"teamId\", " + RUN_RATE_COLUMNS +
+           "FROM innings i " +
+           "JOIN teams t ON t.id = i.batting_team_id OR t.id = i.bowling_team_id " +
+           "WHERE i.match_id = :matchId " +
+           "GROUP BY i.match_id, t.id",
+           nativeQuery = true)
+    List<MatchRunRateTotals> findMatchRunRateTotalsByMatchId(@Param("matchId") Long matchId,
+                                                             @Param("quotaBalls") int quotaBalls);
+    
+    @Query(value = "SELECT t.id AS \"teamId\", t.name AS \"teamName\", " +
+           "CAST(COALESCE(SUM(i.total_runs) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"runsScored\", " +
+           "CAST(COALESCE(SUM(i.wickets) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"wicketsLost\", " +
+           "CAST(COALESCE(SUM(i.legal_balls) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"ballsFaced\", " +
+           "CAST(COALESCE(SUM(i.total_runs) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"runsConceded\", " +
+           "CAST(COALESCE(SUM(i.wickets) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"wicketsTaken\", " +
+           "CAST(COALESCE(SUM(i.legal_balls) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"ballsBowled\" " +
+           "FROM teams t " +
+           "LEFT JOIN innings i ON i.batting_team_id = t.id OR i.bowling_team_id = t.id " +
+           "WHERE t.id = :teamId " +
+           "GROUP BY t.id, t.name",
+           nativeQuery = true)
+    Optional<TeamTotals> findTeamTotals(@Param("teamId") Long teamId);
+    
+    // Every team in the league in one pass over the innings of the league's matches
+    @Query(value = "SELECT t.id AS \"teamId\", t.name AS \"teamName\", " +
+           "CAST(COALESCE(SUM(i.total_runs) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"runsScored\", " +
+           "CAST(COALESCE(SUM(i.wickets) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"wicketsLost\", " +
+           "CAST(COALESCE(SUM(i.legal_balls) FILTER (WHERE i.batting_team_id = t.id), 0) AS BIGINT) AS \"ballsFaced\", " +
+           "CAST(COALESCE(SUM(i.total_runs) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"runsConceded\", " +
+           "CAST(COALESCE(SUM(i.wickets) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"wicketsTaken\", " +
+           "CAST(COALESCE(SUM(i.legal_balls) FILTER (WHERE i.bowling_team_id = t.id), 0) AS BIGINT) AS \"ballsBowled\" " +
+           "FROM teams t " +
+           "LEFT JOIN (innings i JOIN matches m ON m.id = i.match_id AND m.league_id = :leagueId) " +
+           "ON i.batting_team_id = t.id OR i.bowling_team_id = t.id " +
+           "WHERE t.league_id = :leagueId " +
+           "GROUP BY t.id, t.name " +
+           "ORDER BY t.id",
+           nativeQuery = true)
+    List<TeamTotals> findTeamTotalsByLeagueId(@Param("leagueId") Long leagueId);
 }
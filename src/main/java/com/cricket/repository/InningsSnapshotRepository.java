@@ -0,0 +1,22 @@
+package com.cricket.repository;
+
+import com.cricket.entity.InningsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InningsSnapshotRepository extends JpaRepository<InningsSnapshot, Long> {
+    
+    @Query("SELECT s FROM InningsSnapshot s WHERE s.innings.id = :inningsId AND s.sequenceNumber <= :sequenceNumber " +
+           "ORDER BY s.sequenceNumber DESC LIMIT 1")
+    Optional<InningsSnapshot> findLatestAtOrBefore(@Param("inningsId") Long inningsId, @Param("sequenceNumber") Long sequenceNumber);
+    
+    @Modifying
+    @Query("DELETE FROM InningsSnapshot s WHERE s.innings.id = :inningsId AND s.sequenceNumber >= :sequenceNumber")
+    void deleteFromSequence(@Param("inningsId") Long inningsId, @Param("sequenceNumber") Long sequenceNumber);
+}
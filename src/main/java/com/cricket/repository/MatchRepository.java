@@ -1,7 +1,9 @@
 package com.cricket.repository;
 
 import com.cricket.entity.Match;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,6 +21,10 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     
     List<Match> findByMatchDate(LocalDate matchDate);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Match m WHERE m.id = :id")
+    Optional<Match> findByIdForUpdate(@Param("id") Long id);
+    
     @Query("SELECT m FROM Match m WHERE m.league.id = :leagueId AND m.status = :status")
     List<Match> findByLeagueIdAndStatus(@Param("leagueId") Long leagueId, @Param("status") Match.MatchStatus status);
     
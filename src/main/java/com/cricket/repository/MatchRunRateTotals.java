@@ -0,0 +1,10 @@
+package com.cricket.repository;
+
+/**
+ * Runs and legal balls one team scored and conceded in a single match, with a side bowled out
+ * charged its full quota of balls
+ */
+public interface MatchRunRateTotals extends TeamRunRateTotals {
+    
+    Long getMatchId();
+}
@@ -1,7 +1,9 @@
 package com.cricket.repository;
 
+import com.cricket.dto.ScorecardDTO;
 import com.cricket.entity.MatchScorecard;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,9 +16,30 @@ public interface MatchScorecardRepository extends JpaRepository<MatchScorecard,
     
     Optional<MatchScorecard> findByMatchId(Long matchId);
     
+    // Scorecard with its match and both teams in one query, for building the DTO
+    @Query("SELECT ms FROM MatchScorecard ms JOIN FETCH ms.match m JOIN FETCH m.team1 JOIN FETCH m.team2 " +
+           "WHERE m.id = :matchId")
+    Optional<MatchScorecard> findWithTeamsByMatchId(@Param("matchId") Long matchId);
+    
+    // Write a coalesced live scorecard unless a newer version of it is already stored
+    @Modifying
+    @Query("UPDATE MatchScorecard ms SET ms.team1Runs = :#{#card.team1Runs}, ms.team1Wickets = :#{#card.team1Wickets}, " +
+           "ms.team1Overs = :#{#card.team1Overs}, ms.team2Runs = :#{#card.team2Runs}, " +
+           "ms.team2Wickets = :#{#card.team2Wickets}, ms.team2Overs = :#{#card.team2Overs}, " +
+           "ms.winningTeamId = :#{#card.winningTeamId}, ms.winMargin = :#{#card.winMargin}, " +
+           "ms.manOfTheMatchId = :#{#card.manOfTheMatchId}, ms.stateVersion = :#{#card.version}, " +
+           "ms.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE ms.match.id = :matchId AND ms.stateVersion < :#{#card.version}")
+    int updateIfNewer(@Param("matchId") Long matchId, @Param("card") ScorecardDTO card);
+    
     @Query("SELECT ms FROM MatchScorecard ms WHERE ms.match.league.id = :leagueId")
     List<MatchScorecard> findByLeagueId(@Param("leagueId") Long leagueId);
     
+    // Results of finished matches with their match, for building a points table in one pass
+    @Query("SELECT ms FROM MatchScorecard ms JOIN FETCH ms.match m " +
+           "WHERE m.league.id = :leagueId AND m.status = com.cricket.entity.Match.MatchStatus.COMPLETED")
+    List<MatchScorecard> findCompletedByLeagueId(@Param("leagueId") Long leagueId);
+    
     @Query("SELECT ms FROM MatchScorecard ms WHERE ms.winningTeamId = :teamId")
     List<MatchScorecard> findByWinningTeamId(@Param("teamId") Long teamId);
     
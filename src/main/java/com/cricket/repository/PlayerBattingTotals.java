@@ -0,0 +1,27 @@
+package com.cricket.repository;
+
+/**
+ * One row of a league batting leaderboard, aggregated in the database
+ */
+public interface PlayerBattingTotals {
+    
+    Long getPlayerId();
+    
+    String getPlayerName();
+    
+    String getTeamName();
+    
+    Long getTotalRuns();
+    
+    Long getBallsFaced();
+    
+    Long getFours();
+    
+    Long getSixes();
+    
+    Long getCenturies();
+    
+    Long getHalfCenturies();
+    
+    Long getHighestScore();
+}
@@ -0,0 +1,21 @@
+package com.cricket.repository;
+
+/**
+ * One row of a league bowling leaderboard, aggregated in the database
+ */
+public interface PlayerBowlingTotals {
+    
+    Long getPlayerId();
+    
+    String getPlayerName();
+    
+    String getTeamName();
+    
+    Long getRunsConceded();
+    
+    Long getBallsBowled();
+    
+    Long getWickets();
+    
+    Long getFiveWicketHauls();
+}
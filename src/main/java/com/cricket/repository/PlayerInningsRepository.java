@@ -0,0 +1,65 @@
+package com.cricket.repository;
+
+import com.cricket.entity.PlayerInnings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlayerInningsRepository extends JpaRepository<PlayerInnings, Long> {
+    
+    List<PlayerInnings> findByPlayerId(Long playerId);
+    
+    @Query("SELECT pi FROM PlayerInnings pi WHERE pi.player.id = :playerId AND pi.innings.match.league.id NOT IN :leagueIds")
+    List<PlayerInnings> findByPlayerIdExcludingLeagues(@Param("playerId") Long playerId,
+                                                       @Param("leagueIds") Collection<Long> leagueIds);
+    
+    List<PlayerInnings> findByInningsId(Long inningsId);
+    
+    List<PlayerInnings> findByInningsIdAndPlayerIdIn(Long inningsId, Collection<Long> playerIds);
+    
+    // Best player of one match by weighted runs and wickets, lowest id first on a tie
+    @Query(value = "SELECT pi.player_id FROM player_innings pi JOIN innings i ON i.id = pi.innings_id " +
+           "WHERE i.match_id = :matchId " +
+           "GROUP BY pi.player_id " +
+           "ORDER BY SUM(pi.runs * :pointsPerRun + pi.wickets * :pointsPerWicket) DESC, pi.player_id " +
+           "LIMIT 1",
+           nativeQuery = true)
+    Optional<Long> findTopPlayerIdByMatchId(@Param("matchId") Long matchId,
+                                            @Param("pointsPerRun") int pointsPerRun,
+                                            @Param("pointsPerWicket") int pointsPerWicket);
+    
+    @Query(value = "SELECT p.id AS \"playerId\", p.name AS \"playerName\", t.name AS \"teamName\", " +
+           "CAST(COALESCE(SUM(pi.runs), 0) AS BIGINT) AS \"totalRuns\", " +
+           "CAST(COALESCE(SUM(pi.balls_faced), 0) AS BIGINT) AS \"ballsFaced\", " +
+           "CAST(COALESCE(SUM(pi.fours), 0) AS BIGINT) AS \"fours\", " +
+           "CAST(COALESCE(SUM(pi.sixes), 0) AS BIGINT) AS \"sixes\", " +
+           "COUNT(pi.id) FILTER (WHERE pi.runs >= 100) AS \"centuries\", " +
+           "COUNT(pi.id) FILTER (WHERE pi.runs >= 50 AND pi.runs < 100) AS \"halfCenturies\", " +
+           "CAST(COALESCE(MAX(pi.runs), 0) AS BIGINT) AS \"highestScore\" " +
+           "FROM players p JOIN teams t ON t.id = p.team_id " +
+           "LEFT JOIN player_innings pi ON pi.player_id = p.id " +
+           "WHERE t.league_id = :leagueId " +
+           "GROUP BY p.id, p.name, t.name " +
+           "ORDER BY \"totalRuns\" DESC, p.id",
+           nativeQuery = true)
+    List<PlayerBattingTotals> findBattingTotalsByLeagueId(@Param("leagueId") Long leagueId);
+    
+    @Query(value = "SELECT p.id AS \"playerId\", p.name AS \"playerName\", t.name AS \"teamName\", " +
+           "CAST(COALESCE(SUM(pi.runs_conceded), 0) AS BIGINT) AS \"runsConceded\", " +
+           "CAST(COALESCE(SUM(pi.legal_balls_bowled), 0) AS BIGINT) AS \"ballsBowled\", " +
+           "CAST(COALESCE(SUM(pi.wickets), 0) AS BIGINT) AS \"wickets\", " +
+           "COUNT(pi.id) FILTER (WHERE pi.wickets >= 5) AS \"fiveWicketHauls\" " +
+           "FROM players p JOIN teams t ON t.id = p.team_id " +
+           "LEFT JOIN player_innings pi ON pi.player_id = p.id " +
+           "WHERE t.league_id = :leagueId " +
+           "GROUP BY p.id, p.name, t.name " +
+           "ORDER BY \"wickets\" DESC, p.id",
+           nativeQuery = true)
+    List<PlayerBowlingTotals> findBowlingTotalsByLeagueId(@Param("leagueId") Long leagueId);
+}
@@ -0,0 +1,32 @@
+package com.cricket.repository;
+
+/**
+ * Runs and legal balls a team scored and conceded in the completed matches of a league, with
+ * sides bowled out charged their full quota of balls
+ */
+public interface TeamRunRateTotals {
+    
+    Long getTeamId();
+    
+    Long getRunsScored();
+    
+    Long getBallsFaced();
+    
+    Long getRunsConceded();
+    
+    Long getBallsBowled();
+    
+    /**
+     * Runs per over scored less runs per over conceded; balls rather than overs keep part-overs exact
+     */
+    default double netRunRate() {
+        return netRunRate(getRunsScored(), getBallsFaced(), getRunsConceded(), getBallsBowled());
+    }
+    
+    static double netRunRate(long runsScored, long ballsFaced, long runsConceded, long ballsBowled) {
+        double runRateScored = ballsFaced > 0 ? runsScored * 6.0 / ballsFaced : 0.0;
+        double runRateConceded = ballsBowled > 0 ? runsConceded * 6.0 / ballsBowled : 0.0;
+        
+        return runRateScored - runRateConceded;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cricket.repository;
+
+/**
+ * Batting and bowling totals of a team over every innings it played, aggregated in the database
+ */
+public interface TeamTotals {
+    
+    Long getTeamId();
+    
+    String getTeamName();
+    
+    Long getRunsScored();
+    
+    Long getWicketsLost();
+    
+    Long getBallsFaced();
+    
+    Long getRunsConceded();
+    
+    Long getWicketsTaken();
+    
+    Long getBallsBowled();
+}
@@ -0,0 +1,22 @@
+package com.cricket.repository;
+
+import com.cricket.entity.UndoneBall;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UndoneBallRepository extends JpaRepository<UndoneBall, Long> {
+    
+    long countByMatchId(Long matchId);
+    
+    Optional<UndoneBall> findTopByMatchIdOrderByIdDesc(Long matchId);
+    
+    @Modifying
+    @Query("DELETE FROM UndoneBall u WHERE u.matchId = :matchId")
+    void deleteByMatchId(@Param("matchId") Long matchId);
+}
@@ -2,11 +2,18 @@ package com.cricket.service;
 
 import com.cricket.entity.*;
 import com.cricket.repository.*;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,56 +38,53 @@ public class AwardService {
     @Autowired
     private StatisticsService statisticsService;
     
+    @Autowired
+    private LeagueBallStore leagueBallStore;
+    
+    private final PlatformTransactionManager transactionManager;
+    
+    // Award categories block on the database, so they run on plain threads that cancel(true) can interrupt
+    private final ExecutorService categories;
+    
+    // Only the CPU-bound ball scans fork onto this pool; nothing on it blocks
+    private final ForkJoinPool scans;
+    
+    private final long deadlineMs;
+    
+    public AwardService(PlatformTransactionManager transactionManager,
+                        @Value("${cricket.awards.parallelism:0}") int parallelism,
+                        @Value("${cricket.awards.deadline-ms:5000}") long deadlineMs) {
+        this.transactionManager = transactionManager;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.categories = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "awards-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scans = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("awards-scan-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.deadlineMs = deadlineMs;
+    }
+    
     /**
      * Calculate Man of the Match using points system
      * Batting: 1 point per run
      * Bowling: 20 points per wicket
      */
     public Long calculateManOfTheMatch(Long matchId) {
-        List<Innings> innings = inningsRepository.findByMatchIdOrderByInningsNumber(matchId);
-        
-        Map<Long, Integer> playerPoints = new HashMap<>();
-        
-        for (Innings inning : innings) {
-            List<Ball> balls = ballRepository.findByInningsIdOrderByOverAndBall(inning.getId());
-            
-            for (Ball ball : balls) {
-                Long batsmanId = ball.getBatsman().getId();
-                Long bowlerId = ball.getBowler().getId();
-                
-                // Batting points: 1 point per run
-                int battingPoints = ball.getRuns();
-                playerPoints.merge(batsmanId, battingPoints, Integer::sum);
-                
-                // Bowling points: 20 points per wicket
-                if (ball.getIsWicket()) {
-                    int bowlingPoints = 20;
-                    playerPoints.merge(bowlerId, bowlingPoints, Integer::sum);
-                }
-            }
-        }
-        
-        return playerPoints.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
+        return statisticsService.calculateManOfTheMatch(matchId);
     }
     
     /**
      * Calculate Orange Cap (Top run scorer) for a league
      */
     public List<Map<String, Object>> calculateOrangeCap(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        return players.stream()
-                .map(player -> {
-                    Map<String, Object> playerStats = statisticsService.getPlayerBattingStats(player.getId());
-                    playerStats.put("playerId", player.getId());
-                    playerStats.put("playerName", player.getName());
-                    playerStats.put("teamName", player.getTeam().getName());
-                    return playerStats;
-                })
-                .sorted((a, b) -> Integer.compare((Integer) b.get("totalRuns"), (Integer) a.get("totalRuns")))
+        // The leaderboard already comes back ordered by runs
+        return statisticsService.getBattingLeaderboard(leagueId).stream()
                 .limit(10)
                 .collect(Collectors.toList());
     }
@@ -89,41 +93,52 @@ public class AwardService {
      * Calculate Purple Cap (Top wicket taker) for a league
      */
     public List<Map<String, Object>> calculatePurpleCap(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        return players.stream()
-                .map(player -> {
-                    Map<String, Object> playerStats = statisticsService.getPlayerBowlingStats(player.getId());
-                    playerStats.put("playerId", player.getId());
-                    playerStats.put("playerName", player.getName());
-                    playerStats.put("teamName", player.getTeam().getName());
-                    return playerStats;
-                })
-                .sorted((a, b) -> Integer.compare((Integer) b.get("wickets"), (Integer) a.get("wickets")))
+        // The leaderboard already comes back ordered by wickets
+        return statisticsService.getBowlingLeaderboard(leagueId).stream()
                 .limit(10)
                 .collect(Collectors.toList());
     }
     
     /**
-     * Calculate tournament awards
+     * Calculate tournament awards. The categories are independent, so they run side by side
+     * and the request fails once the configured deadline passes, stopping whatever is still running.
      */
     public Map<String, Object> calculateTournamentAwards(Long leagueId) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        
+        Future<List<Map<String, Object>>> orangeCapTask =
+                categories.submit(() -> readBefore(deadline, () -> calculateOrangeCap(leagueId)));
+        Future<List<Map<String, Object>>> purpleCapTask =
+                categories.submit(() -> readBefore(deadline, () -> calculatePurpleCap(leagueId)));
+        Future<Long> mvpTask = categories.submit(() -> mostValuablePlayer(leagueId, deadline));
+        
+        List<Map<String, Object>> orangeCap;
+        List<Map<String, Object>> purpleCap;
+        Long mvpId;
+        try {
+            orangeCap = await(orangeCapTask, deadline, leagueId);
+            purpleCap = await(purpleCapTask, deadline, leagueId);
+            mvpId = await(mvpTask, deadline, leagueId);
+        } catch (RuntimeException e) {
+            orangeCapTask.cancel(true);
+            purpleCapTask.cancel(true);
+            mvpTask.cancel(true);
+            throw e;
+        }
+        
         Map<String, Object> awards = new HashMap<>();
         
         // Orange Cap
-        List<Map<String, Object>> orangeCap = calculateOrangeCap(leagueId);
         if (!orangeCap.isEmpty()) {
             awards.put("orangeCap", orangeCap.get(0));
         }
         
         // Purple Cap
-        List<Map<String, Object>> purpleCap = calculatePurpleCap(leagueId);
         if (!purpleCap.isEmpty()) {
             awards.put("purpleCap", purpleCap.get(0));
         }
         
-        // Most Valuable Player (highest points)
-        Long mvpId = calculateMostValuablePlayer(leagueId);
+        // Most Valuable Player (highest points); the player is read here, where the transaction is
         if (mvpId != null) {
             Player mvp = playerRepository.findById(mvpId).orElse(null);
             if (mvp != null) {
@@ -142,19 +157,12 @@ public class AwardService {
      * Calculate Most Valuable Player for a league
      */
     public Long calculateMostValuablePlayer(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        Map<Long, Integer> playerPoints = new HashMap<>();
-        
-        for (Player player : players) {
-            Map<String, Object> battingStats = statisticsService.getPlayerBattingStats(player.getId());
-            Map<String, Object> bowlingStats = statisticsService.getPlayerBowlingStats(player.getId());
-            
-            int totalPoints = (Integer) battingStats.get("totalRuns") + 
-                            (Integer) bowlingStats.get("wickets") * 20;
-            
-            playerPoints.put(player.getId(), totalPoints);
-        }
+        return mostValuablePlayer(leagueId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs));
+    }
+    
+    private Long mostValuablePlayer(Long leagueId, long deadline) {
+        // Same points as Man of the Match, over every ball of the league, scanned in parallel
+        Map<Long, Integer> playerPoints = leagueBallStore.playerPoints(leagueId, null, 1, 20, scans, deadline);
         
         return playerPoints.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
@@ -166,43 +174,32 @@ public class AwardService {
      * Calculate team awards
      */
     public Map<String, Object> calculateTeamAwards(Long leagueId) {
-        List<Team> teams = teamRepository.findByLeagueId(leagueId);
+        // Every category is picked from the same per-team totals, read once
+        List<Map<String, Object>> teamStats = statisticsService.getLeagueTeamStats(leagueId);
         
         Map<String, Object> teamAwards = new HashMap<>();
         
         // Best batting team
-        Team bestBattingTeam = teams.stream()
-                .max((t1, t2) -> {
-                    Map<String, Object> stats1 = statisticsService.getTeamStats(t1.getId());
-                    Map<String, Object> stats2 = statisticsService.getTeamStats(t2.getId());
-                    return Integer.compare((Integer) stats1.get("totalRuns"), (Integer) stats2.get("totalRuns"));
-                })
-                .orElse(null);
-        
-        if (bestBattingTeam != null) {
-            Map<String, Object> bestBatting = new HashMap<>();
-            bestBatting.put("teamId", bestBattingTeam.getId());
-            bestBatting.put("teamName", bestBattingTeam.getName());
-            bestBatting.put("totalRuns", statisticsService.getTeamStats(bestBattingTeam.getId()).get("totalRuns"));
-            teamAwards.put("bestBattingTeam", bestBatting);
-        }
+        teamStats.stream()
+                .max(Comparator.comparing(stats -> (Integer) stats.get("totalRuns")))
+                .ifPresent(stats -> {
+                    Map<String, Object> bestBatting = new HashMap<>();
+                    bestBatting.put("teamId", stats.get("teamId"));
+                    bestBatting.put("teamName", stats.get("teamName"));
+                    bestBatting.put("totalRuns", stats.get("totalRuns"));
+                    teamAwards.put("bestBattingTeam", bestBatting);
+                });
         
         // Best bowling team
-        Team bestBowlingTeam = teams.stream()
-                .max((t1, t2) -> {
-                    Map<String, Object> stats1 = statisticsService.getTeamStats(t1.getId());
-                    Map<String, Object> stats2 = statisticsService.getTeamStats(t2.getId());
-                    return Integer.compare((Integer) stats1.get("totalWickets"), (Integer) stats2.get("totalWickets"));
-                })
-                .orElse(null);
-        
-        if (bestBowlingTeam != null) {
-            Map<String, Object> bestBowling = new HashMap<>();
-            bestBowling.put("teamId", bestBowlingTeam.getId());
-            bestBowling.put("teamName", bestBowlingTeam.getName());
-            bestBowling.put("totalWickets", statisticsService.getTeamStats(bestBowlingTeam.getId()).get("totalWickets"));
-            teamAwards.put("bestBowlingTeam", bestBowling);
-        }
+        teamStats.stream()
+                .max(Comparator.comparing(stats -> (Integer) stats.get("wicketsTaken")))
+                .ifPresent(stats -> {
+                    Map<String, Object> bestBowling = new HashMap<>();
+                    bestBowling.put("teamId", stats.get("teamId"));
+                    bestBowling.put("teamName", stats.get("teamName"));
+                    bestBowling.put("totalWickets", stats.get("wicketsTaken"));
+                    teamAwards.put("bestBowlingTeam", bestBowling);
+                });
         
         return teamAwards;
     }
@@ -211,16 +208,7 @@ public class AwardService {
      * Calculate century makers for a league
      */
     public List<Map<String, Object>> calculateCenturyMakers(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        return players.stream()
-                .map(player -> {
-                    Map<String, Object> playerStats = statisticsService.getPlayerBattingStats(player.getId());
-                    playerStats.put("playerId", player.getId());
-                    playerStats.put("playerName", player.getName());
-                    playerStats.put("teamName", player.getTeam().getName());
-                    return playerStats;
-                })
+        return statisticsService.getBattingLeaderboard(leagueId).stream()
                 .filter(stats -> (Integer) stats.get("centuries") > 0)
                 .sorted((a, b) -> Integer.compare((Integer) b.get("centuries"), (Integer) a.get("centuries")))
                 .collect(Collectors.toList());
@@ -230,18 +218,43 @@ public class AwardService {
      * Calculate five-wicket haul takers for a league
      */
     public List<Map<String, Object>> calculateFiveWicketHaulTakers(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        return players.stream()
-                .map(player -> {
-                    Map<String, Object> playerStats = statisticsService.getPlayerBowlingStats(player.getId());
-                    playerStats.put("playerId", player.getId());
-                    playerStats.put("playerName", player.getName());
-                    playerStats.put("teamName", player.getTeam().getName());
-                    return playerStats;
-                })
+        return statisticsService.getBowlingLeaderboard(leagueId).stream()
                 .filter(stats -> (Integer) stats.get("fiveWicketHauls") > 0)
                 .sorted((a, b) -> Integer.compare((Integer) b.get("fiveWicketHauls"), (Integer) a.get("fiveWicketHauls")))
                 .collect(Collectors.toList());
     }
+    
+    @PreDestroy
+    public void shutdown() {
+        categories.shutdownNow();
+        scans.shutdownNow();
+    }
+    
+    // The category's queries join a transaction that times out at the deadline, so the database cancels them too
+    private <T> T readBefore(long deadline, Supplier<T> category) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new CancellationException("Award category started after its deadline");
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999)));
+        return template.execute(status -> category.get());
+    }
+    
+    private <T> T await(Future<T> task, long deadline, Long leagueId) {
+        try {
+            return task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Tournament awards for league " + leagueId + " took longer than " + deadlineMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while calculating awards for league: " + leagueId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Could not calculate awards for league: " + leagueId, e.getCause());
+        }
+    }
 }
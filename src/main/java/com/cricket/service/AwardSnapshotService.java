@@ -0,0 +1,175 @@
+package com.cricket.service;
+
+import com.cricket.dto.MatchEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * League awards computed together into one snapshot and served from memory. A snapshot is
+ * rebuilt in the background when a match of the league completes, or after a number of new
+ * balls, and the previous one keeps being served until the rebuild is done.
+ */
+@Service
+public class AwardSnapshotService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AwardSnapshotService.class);
+    
+    @Autowired
+    private AwardService awardService;
+    
+    private final int ballThreshold;
+    
+    private final ConcurrentMap<Long, LeagueAwards> leagues = new ConcurrentHashMap<>();
+    
+    // Rebuilds run one at a time; AwardService already spreads each one over its own pool
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "award-snapshots");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public AwardSnapshotService(@Value("${cricket.awards.snapshot-ball-threshold:0}") int ballThreshold) {
+        this.ballThreshold = ballThreshold;
+    }
+    
+    /**
+     * Current awards of a league; only the first request for a league waits for them to be built
+     */
+    public AwardSnapshot getSnapshot(Long leagueId) {
+        LeagueAwards league = leagues.computeIfAbsent(leagueId, id -> new LeagueAwards());
+        AwardSnapshot snapshot = league.snapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        
+        try {
+            return rebuild(leagueId, league).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while building awards for league: " + leagueId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Could not build awards for league: " + leagueId, e.getCause());
+        }
+    }
+    
+    /**
+     * Rebuild a league's awards once the current transaction commits
+     */
+    public void refresh(Long leagueId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshNow(leagueId);
+                }
+            });
+        } else {
+            refreshNow(leagueId);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not count ball for awards of league {}", event.getLeagueId(), e);
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        if (ballThreshold <= 0) {
+            return;
+        }
+        LeagueAwards league = leagues.get(event.getLeagueId());
+        if (league != null && league.ballsSinceBuild.incrementAndGet() >= ballThreshold) {
+            rebuild(event.getLeagueId(), league);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+    
+    private void refreshNow(Long leagueId) {
+        // Leagues nobody has asked about are built on first read instead
+        LeagueAwards league = leagues.get(leagueId);
+        if (league != null) {
+            rebuild(leagueId, league);
+        }
+    }
+    
+    private CompletableFuture<AwardSnapshot> rebuild(Long leagueId, LeagueAwards league) {
+        synchronized (league) {
+            if (league.rebuild != null) {
+                // Changes made while a rebuild runs may have been missed by it, so another one follows
+                league.stale = true;
+                return league.rebuild;
+            }
+            
+            league.stale = false;
+            league.ballsSinceBuild.set(0);
+            CompletableFuture<AwardSnapshot> rebuild = CompletableFuture.supplyAsync(() -> build(leagueId, league), builder);
+            league.rebuild = rebuild;
+            rebuild.whenComplete((snapshot, error) -> {
+                if (error != null) {
+                    log.warn("Could not rebuild awards for league {}, still serving version {}", leagueId,
+                            league.snapshot != null ? league.snapshot.version() : null, error);
+                }
+                synchronized (league) {
+                    league.rebuild = null;
+                    if (league.stale) {
+                        rebuild(leagueId, league);
+                    }
+                }
+            });
+            return rebuild;
+        }
+    }
+    
+    private AwardSnapshot build(Long leagueId, LeagueAwards league) {
+        long builtAt = System.currentTimeMillis();
+        AwardSnapshot snapshot = new AwardSnapshot(league.versions.incrementAndGet(), builtAt,
+                awardService.calculateTournamentAwards(leagueId),
+                awardService.calculateTeamAwards(leagueId),
+                awardService.calculateCenturyMakers(leagueId),
+                awardService.calculateFiveWicketHaulTakers(leagueId));
+        league.snapshot = snapshot;
+        return snapshot;
+    }
+    
+    public record AwardSnapshot(long version, long builtAt, Map<String, Object> tournamentAwards,
+                                Map<String, Object> teamAwards, List<Map<String, Object>> centuryMakers,
+                                List<Map<String, Object>> fiveWicketHauls) {
+        
+        public long ageMillis() {
+            return System.currentTimeMillis() - builtAt;
+        }
+    }
+    
+    private static final class LeagueAwards {
+        private final AtomicLong versions = new AtomicLong();
+        private final AtomicInteger ballsSinceBuild = new AtomicInteger();
+        private volatile AwardSnapshot snapshot;
+        private CompletableFuture<AwardSnapshot> rebuild;
+        private boolean stale;
+    }
+}
@@ -0,0 +1,258 @@
+package com.cricket.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Balls of one league stored column by column in primitive arrays, one row per delivery in
+ * the order it was recorded. Players are dictionary-encoded to dense codes so per-player
+ * scans add into arrays. Extras and wickets are packed into one flags byte. Undone balls
+ * are marked rather than removed so rows never move. Not thread-safe; scans run on a
+ * {@link Snapshot}, which can be read while rows are appended.
+ */
+final class BallColumns {
+    
+    static final byte WICKET = 1;
+    static final byte WIDE = 1 << 1;
+    static final byte NO_BALL = 1 << 2;
+    static final byte BYE = 1 << 3;
+    static final byte LEG_BYE = 1 << 4;
+    static final byte UNDONE = 1 << 5;
+    
+    // Rows below this are scanned by one thread; splitting further costs more in merging than it saves
+    private static final int SPLIT_ROWS = 1 << 14;
+    
+    // Rows scanned between checks of the deadline
+    private static final int DEADLINE_CHECK_ROWS = 1 << 12;
+    
+    private int size;
+    private int[] ballIds;
+    private int[] matchIds;
+    private int[] inningsIds;
+    private int[] overs;
+    private int[] balls;
+    private int[] batters;
+    private int[] bowlers;
+    private int[] runs;
+    private byte[] flags;
+    
+    private final Map<Long, Integer> playerCodes = new HashMap<>();
+    private long[] playerIds = new long[64];
+    private int playerCount;
+    
+    BallColumns(int capacity) {
+        ballIds = new int[capacity];
+        matchIds = new int[capacity];
+        inningsIds = new int[capacity];
+        overs = new int[capacity];
+        balls = new int[capacity];
+        batters = new int[capacity];
+        bowlers = new int[capacity];
+        runs = new int[capacity];
+        flags = new byte[capacity];
+    }
+    
+    static byte flags(boolean wicket, boolean wide, boolean noBall, boolean bye, boolean legBye) {
+        return (byte) ((wicket ? WICKET : 0) | (wide ? WIDE : 0) | (noBall ? NO_BALL : 0)
+                | (bye ? BYE : 0) | (legBye ? LEG_BYE : 0));
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void append(long ballId, long matchId, long inningsId, int over, int ball,
+                long batterId, long bowlerId, int ballRuns, byte ballFlags) {
+        if (size == ballIds.length) {
+            grow();
+        }
+        ballIds[size] = Math.toIntExact(ballId);
+        matchIds[size] = Math.toIntExact(matchId);
+        inningsIds[size] = Math.toIntExact(inningsId);
+        overs[size] = over;
+        balls[size] = ball;
+        batters[size] = code(batterId);
+        bowlers[size] = code(bowlerId);
+        runs[size] = ballRuns;
+        flags[size] = ballFlags;
+        size++;
+    }
+    
+    /**
+     * Mark a ball as undone; it is nearly always one of the last rows
+     */
+    void markUndone(long ballId) {
+        int id = Math.toIntExact(ballId);
+        for (int row = size - 1; row >= 0; row--) {
+            if (ballIds[row] == id) {
+                flags[row] |= UNDONE;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * The rows appended so far. Appends only write past the recorded size or into grown copies
+     * of the columns, so the snapshot shares them; the flags are copied because an undo
+     * changes them in place.
+     */
+    Snapshot snapshot() {
+        return new Snapshot(size, matchIds, batters, bowlers, runs, Arrays.copyOf(flags, size),
+                playerIds, playerCount);
+    }
+    
+    private int code(long playerId) {
+        Integer code = playerCodes.get(playerId);
+        if (code != null) {
+            return code;
+        }
+        if (playerCount == playerIds.length) {
+            playerIds = Arrays.copyOf(playerIds, playerCount * 2);
+        }
+        playerIds[playerCount] = playerId;
+        playerCodes.put(playerId, playerCount);
+        return playerCount++;
+    }
+    
+    private void grow() {
+        int capacity = Math.max(16, ballIds.length * 2);
+        ballIds = Arrays.copyOf(ballIds, capacity);
+        matchIds = Arrays.copyOf(matchIds, capacity);
+        inningsIds = Arrays.copyOf(inningsIds, capacity);
+        overs = Arrays.copyOf(overs, capacity);
+        balls = Arrays.copyOf(balls, capacity);
+        batters = Arrays.copyOf(batters, capacity);
+        bowlers = Arrays.copyOf(bowlers, capacity);
+        runs = Arrays.copyOf(runs, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+    
+    // Points and whether the player appeared at all, both indexed by player code
+    private static final class PlayerPoints {
+        private final int[] points;
+        private final boolean[] seen;
+        
+        private PlayerPoints(int players) {
+            this.points = new int[players];
+            this.seen = new boolean[players];
+        }
+        
+        private PlayerPoints add(PlayerPoints other) {
+            for (int code = 0; code < points.length; code++) {
+                points[code] += other.points[code];
+                seen[code] |= other.seen[code];
+            }
+            return this;
+        }
+    }
+    
+    /**
+     * Read-only view of the rows up to a given size
+     */
+    static final class Snapshot {
+        private final int size;
+        private final int[] matchIds;
+        private final int[] batters;
+        private final int[] bowlers;
+        private final int[] runs;
+        private final byte[] flags;
+        private final long[] playerIds;
+        private final int playerCount;
+        
+        private Snapshot(int size, int[] matchIds, int[] batters, int[] bowlers, int[] runs, byte[] flags,
+                         long[] playerIds, int playerCount) {
+            this.size = size;
+            this.matchIds = matchIds;
+            this.batters = batters;
+            this.bowlers = bowlers;
+            this.runs = runs;
+            this.flags = flags;
+            this.playerIds = playerIds;
+            this.playerCount = playerCount;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        /**
+         * Points per player: runs off their bat for batters and wickets for bowlers, over one
+         * match or the whole league when matchId is null. With a pool, large scans are split
+         * into row ranges that are summed in parallel and merged. Every range gives up with a
+         * CancellationException once the deadline, a System.nanoTime() value, has passed.
+         */
+        Map<Long, Integer> playerPoints(Long matchId, int pointsPerRun, int pointsPerWicket, ForkJoinPool pool,
+                                        long deadline) {
+            PointsScan scan = new PointsScan(matchId, pointsPerRun, pointsPerWicket, deadline, 0, size);
+            PlayerPoints points = pool != null && size > SPLIT_ROWS ? pool.invoke(scan) : scan.compute();
+            
+            Map<Long, Integer> result = new HashMap<>();
+            for (int code = 0; code < playerCount; code++) {
+                if (points.seen[code]) {
+                    result.put(playerIds[code], points.points[code]);
+                }
+            }
+            return result;
+        }
+        
+        private final class PointsScan extends RecursiveTask<PlayerPoints> {
+            private final Long matchId;
+            private final int pointsPerRun;
+            private final int pointsPerWicket;
+            private final long deadline;
+            private final int from;
+            private final int to;
+            
+            private PointsScan(Long matchId, int pointsPerRun, int pointsPerWicket, long deadline, int from, int to) {
+                this.matchId = matchId;
+                this.pointsPerRun = pointsPerRun;
+                this.pointsPerWicket = pointsPerWicket;
+                this.deadline = deadline;
+                this.from = from;
+                this.to = to;
+            }
+            
+            @Override
+            protected PlayerPoints compute() {
+                if (to - from > SPLIT_ROWS && getPool() != null) {
+                    int middle = (from + to) >>> 1;
+                    PointsScan left = new PointsScan(matchId, pointsPerRun, pointsPerWicket, deadline, from, middle);
+                    left.fork();
+                    PlayerPoints right = new PointsScan(matchId, pointsPerRun, pointsPerWicket, deadline, middle, to)
+                            .compute();
+                    return right.add(left.join());
+                }
+                
+                int match = matchId != null ? Math.toIntExact(matchId) : 0;
+                boolean allMatches = matchId == null;
+                PlayerPoints totals = new PlayerPoints(playerCount);
+                int[] points = totals.points;
+                boolean[] seen = totals.seen;
+                
+                for (int row = from; row < to; row++) {
+                    // Pool workers are not interrupted when the caller gives up, so the scan watches the clock itself
+                    if ((row - from) % DEADLINE_CHECK_ROWS == 0 && System.nanoTime() - deadline > 0) {
+                        throw new CancellationException("Ball scan passed its deadline");
+                    }
+                    byte rowFlags = flags[row];
+                    if ((rowFlags & UNDONE) != 0 || (!allMatches && matchIds[row] != match)) {
+                        continue;
+                    }
+                    int batter = batters[row];
+                    points[batter] += runs[row] * pointsPerRun;
+                    seen[batter] = true;
+                    if ((rowFlags & WICKET) != 0) {
+                        int bowler = bowlers[row];
+                        points[bowler] += pointsPerWicket;
+                        seen[bowler] = true;
+                    }
+                }
+                return totals;
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.cricket.service;
+
+import com.cricket.entity.Ball;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Serialises scoring writes per match while letting different matches proceed in parallel.
+ * Each match gets its own bounded queue drained by at most one worker at a time; writes that
+ * arrive in a burst are applied together in a single transaction.
+ */
+@Service
+public class BallIngestionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BallIngestionService.class);
+    
+    @Autowired
+    private MatchService matchService;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final ExecutorService workers;
+    
+    private final int queueCapacity;
+    
+    private final int maxBatchSize;
+    
+    private final long awaitTimeoutMs;
+    
+    private final ConcurrentMap<Long, MatchLane> lanes = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    
+    private final Counter rejectedWrites;
+    
+    public BallIngestionService(PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${cricket.ingestion.workers:0}") int workerCount,
+                                @Value("${cricket.ingestion.queue-capacity:256}") int queueCapacity,
+                                @Value("${cricket.ingestion.max-batch-size:32}") int maxBatchSize,
+                                @Value("${cricket.ingestion.await-timeout-ms:10000}") long awaitTimeoutMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+        
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ball-ingestion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("cricket.ingestion.queue.depth", lanes,
+                        l -> l.values().stream().mapToInt(lane -> lane.queue.size()).sum())
+                .description("Scoring writes waiting across all match queues")
+                .register(meterRegistry);
+        Gauge.builder("cricket.ingestion.queue.peak", peakQueueDepth, AtomicInteger::get)
+                .description("Deepest single match queue observed")
+                .register(meterRegistry);
+        Gauge.builder("cricket.ingestion.queue.capacity", () -> this.queueCapacity)
+                .description("Maximum pending writes per match")
+                .register(meterRegistry);
+        this.rejectedWrites = Counter.builder("cricket.ingestion.rejected")
+                .description("Scoring writes rejected because the match queue was full")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Add a ball through the match's single-writer queue and wait for it to commit
+     */
+    public Ball addBall(Long matchId, Integer inningsNumber, Ball ball) {
+        return await(matchId, enqueue(matchId, () -> {
+            // A failed batch is retried one write at a time, so drop any id left by the rolled-back insert
+            ball.setId(null);
+            return matchService.addBall(matchId, inningsNumber, ball);
+        }));
+    }
+    
+    /**
+     * Add an ordered batch of balls through the match's single-writer queue and wait for it to commit
+     */
+    public List<Ball> addBalls(Long matchId, Integer inningsNumber, List<Ball> balls) {
+        return await(matchId, enqueue(matchId, () -> {
+            balls.forEach(ball -> ball.setId(null));
+            return matchService.addBalls(matchId, inningsNumber, balls);
+        }));
+    }
+    
+    /**
+     * Undo the last ball through the match's single-writer queue and wait for it to commit
+     */
+    public void undoLastBall(Long matchId) {
+        await(matchId, enqueue(matchId, () -> {
+            matchService.undoLastBall(matchId);
+            return null;
+        }));
+    }
+    
+    /**
+     * Redo the last undone ball through the match's single-writer queue and wait for it to commit
+     */
+    public Ball redoLastBall(Long matchId) {
+        return await(matchId, enqueue(matchId, () -> matchService.redoLastBall(matchId)));
+    }
+    
+    /**
+     * Queue a write for a match. The returned future fails with RejectedExecutionException
+     * when the match queue is full so callers can shed load instead of piling up threads.
+     */
+    public <T> CompletableFuture<T> submit(Long matchId, Supplier<T> write) {
+        return enqueue(matchId, write).result;
+    }
+    
+    public int getQueueDepth(Long matchId) {
+        MatchLane lane = lanes.get(matchId);
+        return lane != null ? lane.queue.size() : 0;
+    }
+    
+    private <T> PendingWrite<T> enqueue(Long matchId, Supplier<T> write) {
+        PendingWrite<T> pending = new PendingWrite<>(write);
+        AtomicBoolean accepted = new AtomicBoolean();
+        
+        // Offered inside compute so an idle lane cannot be dropped between finding it and queueing on it
+        MatchLane lane = lanes.compute(matchId, (id, existing) -> {
+            MatchLane target = existing != null ? existing : new MatchLane(id, queueCapacity);
+            accepted.set(target.queue.offer(pending));
+            return target;
+        });
+        
+        if (!accepted.get()) {
+            rejectedWrites.increment();
+            pending.result.completeExceptionally(
+                    new RejectedExecutionException("Scoring queue full for match: " + matchId));
+            return pending;
+        }
+        
+        peakQueueDepth.accumulateAndGet(lane.queue.size(), Math::max);
+        schedule(lane);
+        return pending;
+    }
+    
+    private void schedule(MatchLane lane) {
+        if (lane.draining.compareAndSet(false, true)) {
+            workers.execute(() -> drain(lane));
+        }
+    }
+    
+    private void drain(MatchLane lane) {
+        List<PendingWrite<?>> batch = new ArrayList<>();
+        lane.queue.drainTo(batch, maxBatchSize);
+        // Writes whose caller already gave up waiting are not applied
+        batch.removeIf(pending -> pending.result.isDone());
+        
+        if (!batch.isEmpty()) {
+            applyBatch(lane.matchId, batch);
+        }
+        
+        // Hand the worker back after each batch so one busy match cannot starve the others
+        lane.draining.set(false);
+        if (!lane.queue.isEmpty()) {
+            schedule(lane);
+            return;
+        }
+        
+        // An idle lane is dropped, so completed matches leave nothing behind; the next write starts a new one
+        lanes.computeIfPresent(lane.matchId, (id, current) ->
+                current == lane && lane.queue.isEmpty() && !lane.draining.get() ? null : current);
+    }
+    
+    private void applyBatch(Long matchId, List<PendingWrite<?>> batch) {
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                markOnCommit(committed);
+                batch.forEach(PendingWrite::apply);
+            });
+        } catch (RuntimeException e) {
+            if (committed.get()) {
+                // The writes are in; only something listening for the commit failed, so nothing is retried
+                log.warn("Post-commit callback failed after {} writes for match {}", batch.size(), matchId, e);
+            } else if (batch.size() == 1) {
+                batch.get(0).fail(e);
+                return;
+            } else {
+                // One bad write must not reject the rest of the burst, so retry them one by one
+                log.debug("Batch of {} writes for match {} failed, retrying individually", batch.size(), matchId, e);
+                batch.forEach(pending -> applySingle(matchId, pending));
+                return;
+            }
+        }
+        batch.forEach(PendingWrite::complete);
+    }
+    
+    private void applySingle(Long matchId, PendingWrite<?> pending) {
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                markOnCommit(committed);
+                pending.apply();
+            });
+        } catch (RuntimeException e) {
+            if (!committed.get()) {
+                pending.fail(e);
+                return;
+            }
+            log.warn("Post-commit callback failed after a write for match {}", matchId, e);
+        }
+        pending.complete();
+    }
+    
+    // Runs ahead of every other commit callback, so a failure in one of those is seen as after the commit
+    private static void markOnCommit(AtomicBoolean committed) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+            
+            @Override
+            public void afterCommit() {
+                committed.set(true);
+            }
+        });
+    }
+    
+    private <T> T await(Long matchId, PendingWrite<T> pending) {
+        try {
+            try {
+                return pending.result.get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Shed like a full queue, but only while the write is still queued and so certain never to run
+                if (pending.abandon()) {
+                    RejectedExecutionException timeout =
+                            new RejectedExecutionException("Timed out waiting for scoring write for match: " + matchId);
+                    pending.fail(timeout);
+                    throw timeout;
+                }
+            }
+            
+            // Already applying, so it may yet commit; a retry now could add the ball twice
+            try {
+                return pending.result.get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new WriteOutcomeUnknownException(
+                        "Scoring write for match " + matchId + " is still applying; check the scorecard before resubmitting");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for scoring write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    private static final class MatchLane {
+        private final Long matchId;
+        private final BlockingQueue<PendingWrite<?>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        
+        private MatchLane(Long matchId, int capacity) {
+            this.matchId = matchId;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+    }
+    
+    private enum WriteState {
+        QUEUED, STARTED, ABANDONED
+    }
+    
+    /**
+     * Thrown when a caller stops waiting for a write that had already started applying, so it may or may
+     * not commit. Unlike a rejection it must not be answered with an invitation to retry.
+     */
+    public static class WriteOutcomeUnknownException extends RuntimeException {
+        public WriteOutcomeUnknownException(String message) {
+            super(message);
+        }
+    }
+    
+    private static final class PendingWrite<T> {
+        private final Supplier<T> write;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicReference<WriteState> state = new AtomicReference<>(WriteState.QUEUED);
+        private T value;
+        
+        private PendingWrite(Supplier<T> write) {
+            this.write = write;
+        }
+        
+        // A write retried on its own after a failed batch has already started, so it is applied again
+        private void apply() {
+            if (state.compareAndSet(WriteState.QUEUED, WriteState.STARTED) || state.get() == WriteState.STARTED) {
+                value = write.get();
+            }
+        }
+        
+        // Wins only if the worker has not picked the write up yet
+        private boolean abandon() {
+            return state.compareAndSet(WriteState.QUEUED, WriteState.ABANDONED);
+        }
+        
+        // Callers only see the result once the enclosing transaction has committed
+        private void complete() {
+            result.complete(value);
+        }
+        
+        private void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.cricket.service;
+
+import com.cricket.dto.InningsStateDTO;
+import com.cricket.entity.*;
+import com.cricket.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Treats the balls of a match as an ordered journal keyed by sequence number and keeps
+ * innings snapshots at over boundaries, so derived state is rebuilt from the nearest
+ * snapshot plus the balls after it rather than from the whole innings.
+ */
+@Service
+@Transactional
+public class BallJournalService {
+    
+    @Autowired
+    private BallRepository ballRepository;
+    
+    @Autowired
+    private InningsRepository inningsRepository;
+    
+    @Autowired
+    private InningsSnapshotRepository snapshotRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Innings state as of a given match sequence number, or the latest state when asOf is null
+     */
+    @Transactional(readOnly = true)
+    public InningsStateDTO getInningsState(Long matchId, Integer inningsNumber, Long asOf) {
+        Innings innings = inningsRepository.findByMatchIdAndInningsNumber(matchId, inningsNumber)
+                .orElseThrow(() -> new RuntimeException("Innings not found"));
+        
+        return rebuild(innings, asOf != null ? asOf : Long.MAX_VALUE);
+    }
+    
+    /**
+     * Load the nearest snapshot at or before upTo and replay only the balls after it
+     */
+    @Transactional(readOnly = true)
+    public InningsStateDTO rebuild(Innings innings, Long upTo) {
+        InningsStateDTO state = snapshotRepository.findLatestAtOrBefore(innings.getId(), upTo)
+                .map(snapshot -> readState(snapshot.getState()))
+                .orElseGet(() -> new InningsStateDTO(innings.getId(), innings.getInningsNumber()));
+        
+        List<Ball> tail = ballRepository.findJournalTail(innings.getId(), state.getSequenceNumber(), upTo);
+        for (Ball ball : tail) {
+            apply(state, ball);
+        }
+        
+        return state;
+    }
+    
+    /**
+     * Record a snapshot of the innings as of the given ball
+     */
+    public void snapshot(Innings innings, Long sequenceNumber) {
+        InningsStateDTO state = rebuild(innings, sequenceNumber);
+        
+        snapshotRepository.save(new InningsSnapshot(innings, state.getSequenceNumber(), state.getTotalRuns(),
+                state.getWickets(), state.getLegalBalls(), writeState(state)));
+    }
+    
+    /**
+     * Drop snapshots that include a ball which has been undone
+     */
+    public void discardSnapshotsFrom(Innings innings, Long sequenceNumber) {
+        snapshotRepository.deleteFromSequence(innings.getId(), sequenceNumber);
+    }
+    
+    /**
+     * Fold a single ball into an innings state
+     */
+    public static void apply(InningsStateDTO state, Ball ball) {
+        boolean legal = !ball.getIsWide() && !ball.getIsNoBall();
+        
+        state.setSequenceNumber(ball.getSequenceNumber());
+        state.setTotalRuns(state.getTotalRuns() + ball.getRuns());
+        state.setExtras(state.getExtras() + (ball.getExtraRuns() != null ? ball.getExtraRuns() : 0));
+        if (ball.getIsWicket()) {
+            state.setWickets(state.getWickets() + 1);
+        }
+        if (legal) {
+            state.setLegalBalls(state.getLegalBalls() + 1);
+        }
+        
+        InningsStateDTO.BatterLine batter = state.getBatting()
+                .computeIfAbsent(ball.getBatsman().getId(), id -> new InningsStateDTO.BatterLine());
+        batter.setRuns(batter.getRuns() + ball.getRuns());
+        if (legal) {
+            batter.setBalls(batter.getBalls() + 1);
+        }
+        if (ball.getRuns() == 4) batter.setFours(batter.getFours() + 1);
+        if (ball.getRuns() == 6) batter.setSixes(batter.getSixes() + 1);
+        if (ball.getIsWicket()) {
+            batter.setOut(true);
+            batter.setDismissal(ball.getWicketType());
+        }
+        
+        InningsStateDTO.BowlerLine bowler = state.getBowling()
+                .computeIfAbsent(ball.getBowler().getId(), id -> new InningsStateDTO.BowlerLine());
+        bowler.setRunsConceded(bowler.getRunsConceded() + ball.getRuns());
+        if (legal) {
+            bowler.setLegalBalls(bowler.getLegalBalls() + 1);
+        }
+        if (ball.getIsWicket()) {
+            bowler.setWickets(bowler.getWickets() + 1);
+        }
+    }
+    
+    private InningsStateDTO readState(String json) {
+        try {
+            return objectMapper.readValue(json, InningsStateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupt innings snapshot", e);
+        }
+    }
+    
+    private String writeState(InningsStateDTO state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialise innings snapshot", e);
+        }
+    }
+}
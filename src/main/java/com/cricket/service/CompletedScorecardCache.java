@@ -0,0 +1,110 @@
+package com.cricket.service;
+
+import com.cricket.dto.ScorecardDTO;
+import com.cricket.entity.Match;
+import com.cricket.entity.MatchScorecard;
+import com.cricket.repository.MatchScorecardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scorecards of completed matches, rendered once to JSON and gzip bytes. A finished
+ * scorecard only changes through an admin correction, which evicts it.
+ */
+@Service
+public class CompletedScorecardCache {
+    
+    @Autowired
+    private MatchScorecardRepository scorecardRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    
+    private final Map<Long, FrozenScorecard> frozen;
+    
+    public CompletedScorecardCache(PlatformTransactionManager transactionManager,
+                                   @Value("${cricket.scorecard.completed-cache-size:5000}") int cacheSize) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.frozen = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FrozenScorecard> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+    
+    /**
+     * Rendered scorecard of a completed match, or null when the match is not complete
+     */
+    public FrozenScorecard get(Long matchId) {
+        FrozenScorecard cached = frozen.get(matchId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        FrozenScorecard rendered = readOnlyTransactionTemplate.execute(status -> {
+            MatchScorecard scorecard = scorecardRepository.findWithTeamsByMatchId(matchId).orElse(null);
+            if (scorecard == null || scorecard.getMatch().getStatus() != Match.MatchStatus.COMPLETED) {
+                return null;
+            }
+            return render(new ScorecardDTO(scorecard));
+        });
+        
+        if (rendered != null) {
+            frozen.put(matchId, rendered);
+        }
+        return rendered;
+    }
+    
+    /**
+     * Drop a rendered scorecard once the transaction correcting it commits
+     */
+    public void evict(Long matchId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    frozen.remove(matchId);
+                }
+            });
+        } else {
+            frozen.remove(matchId);
+        }
+    }
+    
+    private FrozenScorecard render(ScorecardDTO scorecard) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(scorecard);
+            
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            
+            return new FrozenScorecard("\"" + scorecard.getVersion() + "\"", json, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not render scorecard for match: " + scorecard.getMatchId(), e);
+        }
+    }
+    
+    /**
+     * Pre-rendered response bodies; the arrays are never modified after construction
+     */
+    public record FrozenScorecard(String etag, byte[] json, byte[] gzip) {}
+}
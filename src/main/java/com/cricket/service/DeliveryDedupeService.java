@@ -0,0 +1,113 @@
+package com.cricket.service;
+
+import com.cricket.dto.BallDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Answers retried ball submissions from memory. Responses for recent delivery keys are kept
+ * in a bounded LRU, and identical requests that arrive while the first is still being written
+ * wait on that write instead of reaching the database.
+ */
+@Service
+public class DeliveryDedupeService {
+    
+    private final ConcurrentMap<DeliveryKey, CompletableFuture<BallDTO>> inFlight = new ConcurrentHashMap<>();
+    
+    private final Map<DeliveryKey, BallDTO> recent;
+    
+    public DeliveryDedupeService(@Value("${cricket.ingestion.dedupe-cache-size:10000}") int cacheSize) {
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DeliveryKey, BallDTO> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+    
+    /**
+     * Run the write once per delivery key and hand every replay the original response
+     */
+    public BallDTO submitOnce(Long matchId, Integer inningsNumber, String deliveryKey, Supplier<BallDTO> write) {
+        DeliveryKey key = new DeliveryKey(matchId, inningsNumber, deliveryKey);
+        
+        BallDTO cached = recent.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        CompletableFuture<BallDTO> pending = new CompletableFuture<>();
+        CompletableFuture<BallDTO> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return await(existing);
+        }
+        
+        try {
+            // The first write may have finished between the cache check and claiming the key
+            BallDTO result = recent.get(key);
+            if (result == null) {
+                result = write.get();
+                recent.put(key, result);
+            }
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+    
+    /**
+     * Remember the response for a delivery key once the current transaction commits, e.g. when
+     * an undone ball is redone under its original key
+     */
+    public void remember(Long matchId, Integer inningsNumber, String deliveryKey, BallDTO ball) {
+        DeliveryKey key = new DeliveryKey(matchId, inningsNumber, deliveryKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.put(key, ball);
+                }
+            });
+        } else {
+            recent.put(key, ball);
+        }
+    }
+    
+    /**
+     * Drop a remembered response, e.g. when the ball it describes has been undone
+     */
+    public void forget(Long matchId, Integer inningsNumber, String deliveryKey) {
+        recent.remove(new DeliveryKey(matchId, inningsNumber, deliveryKey));
+    }
+    
+    private static BallDTO await(CompletableFuture<BallDTO> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for scoring write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+    
+    private record DeliveryKey(Long matchId, Integer inningsNumber, String deliveryKey) {}
+}
@@ -0,0 +1,361 @@
+package com.cricket.service;
+
+import com.cricket.entity.PlayerInnings;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Ball-by-ball data of a completed league in a read-only, memory-mapped file. Players are
+ * dictionary-encoded to 16-bit codes and every ball is a fixed-width record, grouped by
+ * innings. Postings lists index the records each player batted and bowled.
+ *
+ * <pre>
+ * header      magic, version, league id, player / innings / record counts
+ * players     player id by code                              (8 bytes each)
+ * lookup      (player id, code) sorted by player id           (12 bytes each)
+ * offsets     batting start, count, bowling start, count       (16 bytes per code)
+ * innings     innings id, match id, first record, record count (24 bytes each)
+ * records     innings, batter, bowler, over, ball, runs, flags (12 bytes each)
+ * postings    record numbers by batter, then by bowler         (4 bytes each)
+ * </pre>
+ */
+final class LeagueArchive {
+    
+    private static final int MAGIC = 0x434B4152;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int PLAYER_SIZE = 8;
+    private static final int LOOKUP_SIZE = 12;
+    private static final int OFFSETS_SIZE = 16;
+    private static final int INNINGS_SIZE = 24;
+    private static final int RECORD_SIZE = 12;
+    private static final int MAX_CODE = 0xFFFF;
+    
+    private final long leagueId;
+    private final MappedByteBuffer buffer;
+    private final int playerCount;
+    private final int inningsCount;
+    private final int recordCount;
+    private final int lookupStart;
+    private final int offsetsStart;
+    private final int inningsStart;
+    private final int recordsStart;
+    private final int postingsStart;
+    
+    private LeagueArchive(MappedByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new RuntimeException("Not a league archive");
+        }
+        this.buffer = buffer;
+        this.leagueId = buffer.getLong(8);
+        this.playerCount = buffer.getInt(16);
+        this.inningsCount = buffer.getInt(20);
+        this.recordCount = buffer.getInt(24);
+        this.lookupStart = HEADER_SIZE + playerCount * PLAYER_SIZE;
+        this.offsetsStart = lookupStart + playerCount * LOOKUP_SIZE;
+        this.inningsStart = offsetsStart + playerCount * OFFSETS_SIZE;
+        this.recordsStart = inningsStart + inningsCount * INNINGS_SIZE;
+        this.postingsStart = recordsStart + recordCount * RECORD_SIZE;
+    }
+    
+    static LeagueArchive open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping outlives the channel and is paged in by the OS, not held on the heap
+            return new LeagueArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    long leagueId() {
+        return leagueId;
+    }
+    
+    /**
+     * Ids of every player in the archive, in code order
+     */
+    long[] playerIds() {
+        long[] ids = new long[playerCount];
+        for (int code = 0; code < playerCount; code++) {
+            ids[code] = buffer.getLong(HEADER_SIZE + code * PLAYER_SIZE);
+        }
+        return ids;
+    }
+    
+    /**
+     * One detached row per innings the player took part in, figured the same way as the
+     * player_innings read model
+     */
+    List<PlayerInnings> playerInnings(long playerId) {
+        int code = codeOf(playerId);
+        if (code < 0) {
+            return List.of();
+        }
+        
+        Map<Integer, PlayerInnings> rows = new TreeMap<>();
+        int offsets = offsetsStart + code * OFFSETS_SIZE;
+        
+        int battingStart = buffer.getInt(offsets);
+        int battingCount = buffer.getInt(offsets + 4);
+        for (int i = 0; i < battingCount; i++) {
+            int record = recordsStart + buffer.getInt(postingsStart + (battingStart + i) * 4) * RECORD_SIZE;
+            PlayerInnings row = rows.computeIfAbsent((int) buffer.getChar(record), innings -> new PlayerInnings());
+            int runs = buffer.get(record + 9);
+            byte flags = buffer.get(record + 10);
+            row.setRuns(row.getRuns() + runs);
+            if (isLegal(flags)) row.setBallsFaced(row.getBallsFaced() + 1);
+            if (runs == 4) row.setFours(row.getFours() + 1);
+            if (runs == 6) row.setSixes(row.getSixes() + 1);
+            if ((flags & BallColumns.WICKET) != 0) row.setIsOut(true);
+        }
+        
+        int bowlingStart = buffer.getInt(offsets + 8);
+        int bowlingCount = buffer.getInt(offsets + 12);
+        for (int i = 0; i < bowlingCount; i++) {
+            int record = recordsStart + buffer.getInt(postingsStart + (bowlingStart + i) * 4) * RECORD_SIZE;
+            PlayerInnings row = rows.computeIfAbsent((int) buffer.getChar(record), innings -> new PlayerInnings());
+            byte flags = buffer.get(record + 10);
+            row.setRunsConceded(row.getRunsConceded() + buffer.get(record + 9));
+            if (isLegal(flags)) row.setLegalBallsBowled(row.getLegalBallsBowled() + 1);
+            if ((flags & BallColumns.WICKET) != 0) row.setWickets(row.getWickets() + 1);
+        }
+        
+        return new ArrayList<>(rows.values());
+    }
+    
+    /**
+     * Batting figures of every player in one scan: runs, balls faced, fours, sixes, centuries,
+     * half centuries and highest score, indexed by player code
+     */
+    int[][] battingTotals() {
+        int[][] totals = new int[7][playerCount];
+        int[] inningsRuns = new int[playerCount];
+        int[] lastInnings = new int[playerCount];
+        Arrays.fill(lastInnings, -1);
+        
+        for (int i = 0; i < recordCount; i++) {
+            int record = recordsStart + i * RECORD_SIZE;
+            int innings = buffer.getChar(record);
+            int batter = buffer.getChar(record + 2);
+            int runs = buffer.get(record + 9);
+            byte flags = buffer.get(record + 10);
+            
+            // Records are grouped by innings, so a new innings closes the batter's previous one
+            if (lastInnings[batter] != innings) {
+                closeInnings(totals, batter, lastInnings[batter] >= 0 ? inningsRuns[batter] : -1);
+                lastInnings[batter] = innings;
+                inningsRuns[batter] = 0;
+            }
+            inningsRuns[batter] += runs;
+            
+            totals[0][batter] += runs;
+            if (isLegal(flags)) totals[1][batter]++;
+            if (runs == 4) totals[2][batter]++;
+            if (runs == 6) totals[3][batter]++;
+        }
+        for (int code = 0; code < playerCount; code++) {
+            closeInnings(totals, code, lastInnings[code] >= 0 ? inningsRuns[code] : -1);
+        }
+        return totals;
+    }
+    
+    /**
+     * Bowling figures of every player in one scan: runs conceded, legal balls, wickets and
+     * five-wicket hauls, indexed by player code
+     */
+    int[][] bowlingTotals() {
+        int[][] totals = new int[4][playerCount];
+        int[] inningsWickets = new int[playerCount];
+        int[] lastInnings = new int[playerCount];
+        Arrays.fill(lastInnings, -1);
+        
+        for (int i = 0; i < recordCount; i++) {
+            int record = recordsStart + i * RECORD_SIZE;
+            int innings = buffer.getChar(record);
+            int bowler = buffer.getChar(record + 4);
+            byte flags = buffer.get(record + 10);
+            
+            if (lastInnings[bowler] != innings) {
+                if (inningsWickets[bowler] >= 5) totals[3][bowler]++;
+                lastInnings[bowler] = innings;
+                inningsWickets[bowler] = 0;
+            }
+            
+            totals[0][bowler] += buffer.get(record + 9);
+            if (isLegal(flags)) totals[1][bowler]++;
+            if ((flags & BallColumns.WICKET) != 0) {
+                totals[2][bowler]++;
+                inningsWickets[bowler]++;
+            }
+        }
+        for (int code = 0; code < playerCount; code++) {
+            if (inningsWickets[code] >= 5) totals[3][code]++;
+        }
+        return totals;
+    }
+    
+    private static void closeInnings(int[][] totals, int code, int runs) {
+        if (runs < 0) {
+            return;
+        }
+        if (runs >= 100) totals[4][code]++;
+        else if (runs >= 50) totals[5][code]++;
+        totals[6][code] = Math.max(totals[6][code], runs);
+    }
+    
+    private static boolean isLegal(byte flags) {
+        return (flags & (BallColumns.WIDE | BallColumns.NO_BALL)) == 0;
+    }
+    
+    private int codeOf(long playerId) {
+        int low = 0;
+        int high = playerCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = buffer.getLong(lookupStart + mid * LOOKUP_SIZE);
+            if (id < playerId) {
+                low = mid + 1;
+            } else if (id > playerId) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(lookupStart + mid * LOOKUP_SIZE + 8);
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Collects the balls of a league, already ordered by innings, and writes them out
+     */
+    static final class Writer {
+        private final long leagueId;
+        private final Map<Long, Integer> codes = new HashMap<>();
+        private final List<Long> players = new ArrayList<>();
+        private final List<long[]> innings = new ArrayList<>();
+        private ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * 1024);
+        private int[] batters = new int[1024];
+        private int[] bowlers = new int[1024];
+        private int recordCount;
+        private long currentInningsId = -1;
+        
+        Writer(long leagueId) {
+            this.leagueId = leagueId;
+        }
+        
+        /**
+         * Register a player so they appear in the dictionary even without a ball
+         */
+        int player(long playerId) {
+            Integer code = codes.get(playerId);
+            if (code == null) {
+                if (players.size() > MAX_CODE) {
+                    throw new RuntimeException("Too many players to archive league: " + leagueId);
+                }
+                code = players.size();
+                codes.put(playerId, code);
+                players.add(playerId);
+            }
+            return code;
+        }
+        
+        void ball(long inningsId, long matchId, long batterId, long bowlerId,
+                  int over, int ball, int runs, byte flags) {
+            if (inningsId != currentInningsId) {
+                if (innings.size() > MAX_CODE) {
+                    throw new RuntimeException("Too many innings to archive league: " + leagueId);
+                }
+                innings.add(new long[] {inningsId, matchId, recordCount, 0});
+                currentInningsId = inningsId;
+            }
+            innings.get(innings.size() - 1)[3]++;
+            
+            if (!records.hasRemaining()) {
+                records = ByteBuffer.allocate(records.capacity() * 2).put(records.flip());
+                batters = Arrays.copyOf(batters, batters.length * 2);
+                bowlers = Arrays.copyOf(bowlers, bowlers.length * 2);
+            }
+            int batter = player(batterId);
+            int bowler = player(bowlerId);
+            records.putChar((char) (innings.size() - 1))
+                    .putChar((char) batter)
+                    .putChar((char) bowler)
+                    .putChar((char) over)
+                    .put((byte) ball)
+                    .put((byte) runs)
+                    .put(flags)
+                    .put((byte) 0);
+            batters[recordCount] = batter;
+            bowlers[recordCount] = bowler;
+            recordCount++;
+        }
+        
+        void writeTo(Path file) throws IOException {
+            int playerCount = players.size();
+            long size = (long) HEADER_SIZE + (long) playerCount * (PLAYER_SIZE + LOOKUP_SIZE + OFFSETS_SIZE)
+                    + (long) innings.size() * INNINGS_SIZE + (long) recordCount * (RECORD_SIZE + 8);
+            
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                
+                out.putInt(MAGIC).putInt(VERSION).putLong(leagueId)
+                        .putInt(playerCount).putInt(innings.size()).putInt(recordCount).putInt(0);
+                
+                for (Long playerId : players) {
+                    out.putLong(playerId);
+                }
+                
+                List<Long> sorted = new ArrayList<>(players);
+                Collections.sort(sorted);
+                for (Long playerId : sorted) {
+                    out.putLong(playerId).putInt(codes.get(playerId));
+                }
+                
+                // Counting sort of record numbers by player code gives each player one contiguous run
+                int[] battingStarts = starts(batters, playerCount);
+                int[] bowlingStarts = starts(bowlers, playerCount);
+                for (int code = 0; code < playerCount; code++) {
+                    out.putInt(battingStarts[code]).putInt(battingStarts[code + 1] - battingStarts[code])
+                            .putInt(recordCount + bowlingStarts[code]).putInt(bowlingStarts[code + 1] - bowlingStarts[code]);
+                }
+                
+                for (long[] entry : innings) {
+                    out.putLong(entry[0]).putLong(entry[1]).putInt((int) entry[2]).putInt((int) entry[3]);
+                }
+                
+                out.put(records.flip());
+                
+                out.put(postings(batters, battingStarts));
+                out.put(postings(bowlers, bowlingStarts));
+                
+                out.force();
+            }
+        }
+        
+        private int[] starts(int[] playerCodes, int playerCount) {
+            int[] starts = new int[playerCount + 1];
+            for (int i = 0; i < recordCount; i++) {
+                starts[playerCodes[i] + 1]++;
+            }
+            for (int code = 0; code < playerCount; code++) {
+                starts[code + 1] += starts[code];
+            }
+            return starts;
+        }
+        
+        private ByteBuffer postings(int[] playerCodes, int[] starts) {
+            int[] next = Arrays.copyOf(starts, starts.length - 1);
+            int[] postings = new int[recordCount];
+            for (int i = 0; i < recordCount; i++) {
+                postings[next[playerCodes[i]]++] = i;
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(recordCount * 4);
+            bytes.asIntBuffer().put(postings);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.cricket.service;
+
+import com.cricket.entity.PlayerInnings;
+import com.cricket.repository.PlayerBattingTotals;
+import com.cricket.repository.PlayerBowlingTotals;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Completed leagues exported to one memory-mapped ball file each. Once a league's file is
+ * open its player figures and leaderboards are read from the file instead of Postgres.
+ */
+@Service
+public class LeagueArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LeagueArchiveService.class);
+    
+    private static final String STATUS_SQL = "SELECT status FROM leagues WHERE id = ?";
+    
+    private static final String PLAYERS_SQL =
+            "SELECT p.id FROM players p JOIN teams t ON t.id = p.team_id WHERE t.league_id = ? ORDER BY p.id";
+    
+    private static final String BALLS_SQL =
+            "SELECT b.innings_id, i.match_id, b.batsman_id, b.bowler_id, b.over_number, b.ball_number, b.runs, " +
+            "b.is_wicket, b.is_wide, b.is_no_ball, b.is_bye, b.is_leg_bye " +
+            "FROM balls b JOIN innings i ON i.id = b.innings_id JOIN matches m ON m.id = i.match_id " +
+            "WHERE m.league_id = ? ORDER BY i.match_id, i.innings_number, b.sequence_number";
+    
+    private static final String NAMES_SQL =
+            "SELECT p.id, p.name, t.name FROM players p JOIN teams t ON t.id = p.team_id WHERE t.league_id = ?";
+    
+    private static final String FILE_PREFIX = "league-";
+    
+    private static final String FILE_SUFFIX = ".ckar";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final TransactionTemplate snapshotTemplate;
+    
+    private final Path directory;
+    
+    private final int fetchSize;
+    
+    private final ConcurrentMap<Long, LeagueArchive> archives = new ConcurrentHashMap<>();
+    
+    // One writer keeps exports and discards of the same league in the order they were asked for
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "league-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public LeagueArchiveService(PlatformTransactionManager transactionManager,
+                                @Value("${cricket.archive.directory:./data/archive}") String directory,
+                                @Value("${cricket.ball-store.fetch-size:5000}") int fetchSize) {
+        // Players and balls from one snapshot; also keeps the connection out of autocommit for the cursor
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.directory = Paths.get(directory);
+        this.fetchSize = fetchSize;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void openArchives() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    LeagueArchive archive = LeagueArchive.open(file);
+                    archives.put(archive.leagueId(), archive);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable league archive {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list league archives in {}", directory, e);
+        }
+    }
+    
+    public Set<Long> getArchivedLeagueIds() {
+        return Collections.unmodifiableSet(archives.keySet());
+    }
+    
+    /**
+     * Export a league's balls once the current transaction commits
+     */
+    public void archive(Long leagueId) {
+        afterCommit(() -> writer.execute(() -> export(leagueId)));
+    }
+    
+    /**
+     * Stop serving a league from its file and delete it once the current transaction commits
+     */
+    public void discard(Long leagueId) {
+        afterCommit(() -> {
+            archives.remove(leagueId);
+            writer.execute(() -> {
+                // Again here in case an export already under way put the league back
+                archives.remove(leagueId);
+                try {
+                    Files.deleteIfExists(file(leagueId));
+                } catch (IOException e) {
+                    log.warn("Could not delete archive of league {}", leagueId, e);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Per-innings figures of a player from every archived league, detached from any innings entity
+     */
+    public List<PlayerInnings> getPlayerInnings(Long playerId) {
+        List<PlayerInnings> innings = new ArrayList<>();
+        for (LeagueArchive archive : archives.values()) {
+            innings.addAll(archive.playerInnings(playerId));
+        }
+        return innings;
+    }
+    
+    /**
+     * Batting leaderboard of an archived league, most runs first, or null if it is not archived
+     */
+    public List<PlayerBattingTotals> getBattingTotals(Long leagueId) {
+        LeagueArchive archive = archives.get(leagueId);
+        if (archive == null) {
+            return null;
+        }
+        
+        long[] playerIds = archive.playerIds();
+        int[][] totals = archive.battingTotals();
+        Map<Long, String[]> names = names(leagueId);
+        
+        List<PlayerBattingTotals> rows = new ArrayList<>(playerIds.length);
+        for (int code = 0; code < playerIds.length; code++) {
+            String[] name = names.getOrDefault(playerIds[code], new String[2]);
+            rows.add(new ArchivedBattingTotals(playerIds[code], name[0], name[1], totals[0][code], totals[1][code],
+                    totals[2][code], totals[3][code], totals[4][code], totals[5][code], totals[6][code]));
+        }
+        rows.sort(Comparator.comparing(PlayerBattingTotals::getTotalRuns).reversed()
+                .thenComparing(PlayerBattingTotals::getPlayerId));
+        return rows;
+    }
+    
+    /**
+     * Bowling leaderboard of an archived league, most wickets first, or null if it is not archived
+     */
+    public List<PlayerBowlingTotals> getBowlingTotals(Long leagueId) {
+        LeagueArchive archive = archives.get(leagueId);
+        if (archive == null) {
+            return null;
+        }
+        
+        long[] playerIds = archive.playerIds();
+        int[][] totals = archive.bowlingTotals();
+        Map<Long, String[]> names = names(leagueId);
+        
+        List<PlayerBowlingTotals> rows = new ArrayList<>(playerIds.length);
+        for (int code = 0; code < playerIds.length; code++) {
+            String[] name = names.getOrDefault(playerIds[code], new String[2]);
+            rows.add(new ArchivedBowlingTotals(playerIds[code], name[0], name[1], totals[0][code], totals[1][code],
+                    totals[2][code], totals[3][code]));
+        }
+        rows.sort(Comparator.comparing(PlayerBowlingTotals::getWickets).reversed()
+                .thenComparing(PlayerBowlingTotals::getPlayerId));
+        return rows;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+    
+    private void export(Long leagueId) {
+        try {
+            LeagueArchive.Writer archive = snapshotTemplate.execute(status -> {
+                // The league may have been reopened between the commit and this export
+                List<String> leagueStatus = jdbcTemplate.queryForList(STATUS_SQL, String.class, leagueId);
+                if (leagueStatus.isEmpty() || !"COMPLETED".equals(leagueStatus.get(0))) {
+                    return null;
+                }
+                
+                LeagueArchive.Writer collected = new LeagueArchive.Writer(leagueId);
+                jdbcTemplate.query(PLAYERS_SQL, (RowCallbackHandler) rs -> collected.player(rs.getLong(1)), leagueId);
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(BALLS_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, leagueId);
+                    return statement;
+                }, (RowCallbackHandler) rs -> collected.ball(
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getInt(5), rs.getInt(6),
+                        rs.getInt(7), BallColumns.flags(rs.getBoolean(8), rs.getBoolean(9), rs.getBoolean(10),
+                                rs.getBoolean(11), rs.getBoolean(12))));
+                return collected;
+            });
+            if (archive == null) {
+                return;
+            }
+            
+            // Written beside the final name and moved into place so readers never map a partial file
+            Files.createDirectories(directory);
+            Path target = file(leagueId);
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            archive.writeTo(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            
+            archives.put(leagueId, LeagueArchive.open(target));
+            log.info("Archived league {} to {}", leagueId, target);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not archive league {}, its stats stay on the database", leagueId, e);
+        }
+    }
+    
+    private Map<Long, String[]> names(Long leagueId) {
+        Map<Long, String[]> names = new HashMap<>();
+        jdbcTemplate.query(NAMES_SQL, (RowCallbackHandler) rs ->
+                names.put(rs.getLong(1), new String[] {rs.getString(2), rs.getString(3)}), leagueId);
+        return names;
+    }
+    
+    private Path file(Long leagueId) {
+        return directory.resolve(FILE_PREFIX + leagueId + FILE_SUFFIX);
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private record ArchivedBattingTotals(Long playerId, String playerName, String teamName, long totalRuns,
+                                         long ballsFaced, long fours, long sixes, long centuries,
+                                         long halfCenturies, long highestScore) implements PlayerBattingTotals {
+        
+        public Long getPlayerId() { return playerId; }
+        
+        public String getPlayerName() { return playerName; }
+        
+        public String getTeamName() { return teamName; }
+        
+        public Long getTotalRuns() { return totalRuns; }
+        
+        public Long getBallsFaced() { return ballsFaced; }
+        
+        public Long getFours() { return fours; }
+        
+        public Long getSixes() { return sixes; }
+        
+        public Long getCenturies() { return centuries; }
+        
+        public Long getHalfCenturies() { return halfCenturies; }
+        
+        public Long getHighestScore() { return highestScore; }
+    }
+    
+    private record ArchivedBowlingTotals(Long playerId, String playerName, String teamName, long runsConceded,
+                                         long ballsBowled, long wickets, long fiveWicketHauls) implements PlayerBowlingTotals {
+        
+        public Long getPlayerId() { return playerId; }
+        
+        public String getPlayerName() { return playerName; }
+        
+        public String getTeamName() { return teamName; }
+        
+        public Long getRunsConceded() { return runsConceded; }
+        
+        public Long getBallsBowled() { return ballsBowled; }
+        
+        public Long getWickets() { return wickets; }
+        
+        public Long getFiveWicketHauls() { return fiveWicketHauls; }
+    }
+}
@@ -0,0 +1,217 @@
+package com.cricket.service;
+
+import com.cricket.dto.BallDTO;
+import com.cricket.dto.MatchEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * In-memory columnar copy of every ball in a league for analytics scans. A league is
+ * streamed from the database with a cursor the first time it is needed and then appended
+ * to by each committed ball, so aggregations never hydrate Ball entities. Only the most
+ * recently used leagues are kept, and a league is dropped when it completes.
+ */
+@Service
+public class LeagueBallStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(LeagueBallStore.class);
+    
+    private static final String BALLS_SQL =
+            "SELECT b.id, i.match_id, b.innings_id, b.over_number, b.ball_number, b.batsman_id, b.bowler_id, " +
+            "b.runs, b.is_wicket, b.is_wide, b.is_no_ball, b.is_bye, b.is_leg_bye " +
+            "FROM balls b JOIN innings i ON i.id = b.innings_id JOIN matches m ON m.id = i.match_id " +
+            "WHERE m.league_id = ? ORDER BY b.id";
+    
+    private static final String VERSIONS_SQL = "SELECT id, state_version FROM matches WHERE league_id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final TransactionTemplate snapshotTemplate;
+    
+    private final int fetchSize;
+    
+    private final Map<Long, LeagueBalls> leagues;
+    
+    public LeagueBallStore(PlatformTransactionManager transactionManager,
+                           @Value("${cricket.ball-store.fetch-size:5000}") int fetchSize,
+                           @Value("${cricket.ball-store.max-leagues:16}") int maxLeagues) {
+        // Balls and match versions from one snapshot; also keeps the connection out of autocommit for the cursor
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fetchSize = fetchSize;
+        this.leagues = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LeagueBalls> eldest) {
+                return size() > maxLeagues;
+            }
+        });
+    }
+    
+    /**
+     * Batting runs and bowling wickets weighted into points per player, for one match or,
+     * when matchId is null, every match of the league. With a pool the scan is split across
+     * it when the league is large. The scan is abandoned once the deadline, a System.nanoTime()
+     * value, has passed.
+     */
+    public Map<Long, Integer> playerPoints(Long leagueId, Long matchId, int pointsPerRun, int pointsPerWicket,
+                                           ForkJoinPool pool, long deadline) {
+        BallColumns.Snapshot snapshot;
+        LeagueBalls league = league(leagueId);
+        synchronized (league) {
+            snapshot = league.columns.snapshot();
+        }
+        // Scanned outside the lock, so balls committed meanwhile are appended without waiting for it
+        return snapshot.playerPoints(matchId, pointsPerRun, pointsPerWicket, pool, deadline);
+    }
+    
+    /**
+     * Drop a league's balls once the current transaction commits, so they are streamed again on next use
+     */
+    public void evict(Long leagueId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    leagues.remove(leagueId);
+                }
+            });
+        } else {
+            leagues.remove(leagueId);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply ball to store of league {}, reloading it on next read", event.getLeagueId(), e);
+            leagues.remove(event.getLeagueId());
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        LeagueBalls league = leagues.get(event.getLeagueId());
+        if (league == null) {
+            return;
+        }
+        
+        synchronized (league) {
+            if (!league.ready) {
+                league.pending.add(event);
+                return;
+            }
+            league.apply(event);
+        }
+    }
+    
+    private LeagueBalls league(Long leagueId) {
+        LeagueBalls league = leagues.get(leagueId);
+        if (league == null) {
+            LeagueBalls created = new LeagueBalls();
+            league = leagues.putIfAbsent(leagueId, created);
+            if (league == null) {
+                load(leagueId, created);
+                return created;
+            }
+        }
+        
+        synchronized (league) {
+            while (!league.ready && !league.failed) {
+                try {
+                    league.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while loading balls for league: " + leagueId, e);
+                }
+            }
+            if (league.failed) {
+                throw new RuntimeException("Balls could not be loaded for league: " + leagueId);
+            }
+        }
+        return league;
+    }
+    
+    private void load(Long leagueId, LeagueBalls league) {
+        try {
+            // Events only touch the columns once the league is marked ready, so no lock is held while streaming
+            snapshotTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query(VERSIONS_SQL, (RowCallbackHandler) rs ->
+                        league.loadedVersions.put(rs.getLong(1), rs.getLong(2)), leagueId);
+                
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(BALLS_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, leagueId);
+                    return statement;
+                }, (RowCallbackHandler) rs -> league.columns.append(
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getInt(5),
+                        rs.getLong(6), rs.getLong(7), rs.getInt(8),
+                        BallColumns.flags(rs.getBoolean(9), rs.getBoolean(10), rs.getBoolean(11),
+                                rs.getBoolean(12), rs.getBoolean(13))));
+            });
+        } catch (RuntimeException e) {
+            leagues.remove(leagueId, league);
+            synchronized (league) {
+                league.failed = true;
+                league.notifyAll();
+            }
+            throw e;
+        }
+        
+        synchronized (league) {
+            for (MatchEventDTO event : league.pending) {
+                league.apply(event);
+            }
+            league.pending.clear();
+            league.ready = true;
+            league.notifyAll();
+        }
+    }
+    
+    private static final class LeagueBalls {
+        private final BallColumns columns = new BallColumns(1024);
+        private final Map<Long, Long> loadedVersions = new HashMap<>();
+        private final List<MatchEventDTO> pending = new ArrayList<>();
+        private boolean ready;
+        private boolean failed;
+        
+        private void apply(MatchEventDTO event) {
+            // Already part of the snapshot the league was streamed from
+            Long loadedVersion = loadedVersions.get(event.getMatchId());
+            if (loadedVersion != null && event.getSequence() <= loadedVersion) {
+                return;
+            }
+            
+            BallDTO ball = event.getBall();
+            if (event.getType() == MatchEventDTO.EventType.UNDO) {
+                columns.markUndone(ball.getId());
+                return;
+            }
+            columns.append(ball.getId(), event.getMatchId(), event.getInningsId(), event.getOverNumber(),
+                    event.getBallNumber(), ball.getBatsmanId(), ball.getBowlerId(), ball.getRuns(),
+                    BallColumns.flags(ball.getIsWicket(), ball.getIsWide(), ball.getIsNoBall(),
+                            ball.getIsBye(), ball.getIsLegBye()));
+        }
+    }
+}
@@ -17,6 +17,12 @@ public class LeagueService {
     @Autowired
     private LeagueRepository leagueRepository;
     
+    @Autowired
+    private LeagueArchiveService leagueArchiveService;
+    
+    @Autowired
+    private LeagueBallStore leagueBallStore;
+    
     public League createLeague(League league) {
         return leagueRepository.save(league);
     }
@@ -45,11 +51,22 @@ public class LeagueService {
         League league = leagueRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("League not found with id: " + id));
         
+        boolean wasCompleted = league.getStatus() == League.LeagueStatus.COMPLETED;
+        
         league.setName(leagueDetails.getName());
         league.setStartDate(leagueDetails.getStartDate());
         league.setEndDate(leagueDetails.getEndDate());
         league.setStatus(leagueDetails.getStatus());
         
+        boolean completed = league.getStatus() == League.LeagueStatus.COMPLETED;
+        if (completed && !wasCompleted) {
+            leagueArchiveService.archive(id);
+            leagueBallStore.evict(id);
+        } else if (!completed && wasCompleted) {
+            // A reopened league takes balls again, so its stats go back to the database
+            leagueArchiveService.discard(id);
+        }
+        
         return leagueRepository.save(league);
     }
     
@@ -57,6 +74,8 @@ public class LeagueService {
         League league = leagueRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("League not found with id: " + id));
         leagueRepository.delete(league);
+        leagueArchiveService.discard(id);
+        leagueBallStore.evict(id);
     }
     
     public League startLeague(Long id) {
@@ -76,6 +95,9 @@ public class LeagueService {
                 .orElseThrow(() -> new RuntimeException("League not found with id: " + id));
         
         league.setStatus(League.LeagueStatus.COMPLETED);
+        // A completed league takes no more balls, so it no longer needs its in-memory copy
+        leagueArchiveService.archive(id);
+        leagueBallStore.evict(id);
         return leagueRepository.save(league);
     }
 }
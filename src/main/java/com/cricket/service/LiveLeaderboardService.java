@@ -0,0 +1,373 @@
+package com.cricket.service;
+
+import com.cricket.dto.BallDTO;
+import com.cricket.dto.MatchEventDTO;
+import com.cricket.entity.League;
+import com.cricket.entity.Match;
+import com.cricket.entity.Player;
+import com.cricket.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live run and wicket rankings per league, held in memory and moved by each committed ball.
+ * A league is loaded from player_innings at startup or whenever it is missing; the match
+ * versions read with it tell which later events are already counted.
+ */
+@Service
+public class LiveLeaderboardService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LiveLeaderboardService.class);
+    
+    @Autowired
+    private LeagueRepository leagueRepository;
+    
+    @Autowired
+    private MatchRepository matchRepository;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private PlayerInningsRepository playerInningsRepository;
+    
+    private final TransactionTemplate snapshotTemplate;
+    
+    private final ConcurrentMap<Long, LeagueBoard> boards = new ConcurrentHashMap<>();
+    
+    public LiveLeaderboardService(PlatformTransactionManager transactionManager) {
+        // One snapshot for the totals and the match versions, so they agree with each other
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        for (League league : leagueRepository.findAll()) {
+            try {
+                board(league.getId());
+            } catch (RuntimeException e) {
+                log.warn("Could not load live leaderboard for league {}, will retry on first read", league.getId(), e);
+            }
+        }
+    }
+    
+    /**
+     * Highest ranked players in a category
+     */
+    public List<Map<String, Object>> getTop(Long leagueId, Category category, int limit) {
+        LeagueBoard board = board(leagueId);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        synchronized (board) {
+            RankedScores ranking = board.ranking(category);
+            int count = Math.min(limit, ranking.size());
+            for (int i = 0; i < count; i++) {
+                rows.add(row(board, category, ranking.playerAt(i), i));
+            }
+        }
+        return withNames(board, rows);
+    }
+    
+    /**
+     * A player's rank in a category with the players either side of them
+     */
+    public Map<String, Object> getPlayerRank(Long leagueId, Category category, Long playerId, int window) {
+        LeagueBoard board = board(leagueId);
+        boolean ranked;
+        synchronized (board) {
+            ranked = board.scores(category).containsKey(playerId);
+        }
+        if (!ranked) {
+            // Players with nothing in player_innings yet, such as ones added after the load, rank from 0
+            admit(leagueId, board, playerId);
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        List<Map<String, Object>> around = new ArrayList<>();
+        synchronized (board) {
+            Integer score = board.scores(category).get(playerId);
+            RankedScores ranking = board.ranking(category);
+            int index = ranking.indexOf(playerId, score);
+            int from = Math.max(0, index - window);
+            int to = Math.min(ranking.size() - 1, index + window);
+            
+            for (int i = from; i <= to; i++) {
+                around.add(row(board, category, ranking.playerAt(i), i));
+            }
+            
+            result.put("playerId", playerId);
+            result.put("rank", index + 1);
+            result.put("value", score);
+        }
+        // Names are filled in outside the lock as they may need a lookup
+        result.put("around", withNames(board, around));
+        return result;
+    }
+    
+    /**
+     * Rank a newly added player at 0 once the current transaction commits
+     */
+    public void addPlayer(Long leagueId, Player player) {
+        Long playerId = player.getId();
+        String[] names = {player.getName(), player.getTeam().getName()};
+        
+        Runnable add = () -> {
+            LeagueBoard board = boards.get(leagueId);
+            if (board == null) {
+                // Not loaded yet; the load will read this player from the database
+                return;
+            }
+            board.names.put(playerId, names);
+            synchronized (board) {
+                board.admit(playerId);
+            }
+        };
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add.run();
+                }
+            });
+        } else {
+            add.run();
+        }
+    }
+    
+    /**
+     * Drop a league's rankings once the current transaction commits, so they are rebuilt
+     * from the database on next use
+     */
+    public void evict(Long leagueId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    boards.remove(leagueId);
+                }
+            });
+        } else {
+            boards.remove(leagueId);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply ball to live leaderboard of league {}, reloading it on next read", event.getLeagueId(), e);
+            boards.remove(event.getLeagueId());
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        LeagueBoard board = boards.get(event.getLeagueId());
+        if (board == null) {
+            // Not loaded yet; the load will read this ball from the database
+            return;
+        }
+        
+        synchronized (board) {
+            if (!board.ready) {
+                board.pending.add(event);
+                return;
+            }
+            apply(board, event);
+        }
+    }
+    
+    private LeagueBoard board(Long leagueId) {
+        LeagueBoard board = boards.get(leagueId);
+        if (board == null) {
+            LeagueBoard created = new LeagueBoard();
+            board = boards.putIfAbsent(leagueId, created);
+            if (board == null) {
+                load(leagueId, created);
+                return created;
+            }
+        }
+        
+        synchronized (board) {
+            while (!board.ready && !board.failed) {
+                try {
+                    board.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while loading leaderboard for league: " + leagueId, e);
+                }
+            }
+            if (board.failed) {
+                throw new RuntimeException("Leaderboard could not be loaded for league: " + leagueId);
+            }
+        }
+        return board;
+    }
+    
+    private void load(Long leagueId, LeagueBoard board) {
+        try {
+            // Events that commit while the snapshot is read are parked on the board meanwhile
+            snapshotTemplate.executeWithoutResult(status -> {
+                for (PlayerBattingTotals totals : playerInningsRepository.findBattingTotalsByLeagueId(leagueId)) {
+                    board.names.put(totals.getPlayerId(), new String[] {totals.getPlayerName(), totals.getTeamName()});
+                    board.set(Category.RUNS, totals.getPlayerId(), totals.getTotalRuns().intValue());
+                }
+                for (PlayerBowlingTotals totals : playerInningsRepository.findBowlingTotalsByLeagueId(leagueId)) {
+                    board.set(Category.WICKETS, totals.getPlayerId(), totals.getWickets().intValue());
+                }
+                for (Match match : matchRepository.findByLeagueId(leagueId)) {
+                    board.loadedVersions.put(match.getId(), match.getStateVersion());
+                }
+            });
+        } catch (RuntimeException e) {
+            boards.remove(leagueId, board);
+            synchronized (board) {
+                board.failed = true;
+                board.notifyAll();
+            }
+            throw e;
+        }
+        
+        synchronized (board) {
+            for (MatchEventDTO event : board.pending) {
+                apply(board, event);
+            }
+            board.pending.clear();
+            board.ready = true;
+            board.notifyAll();
+        }
+    }
+    
+    private void apply(LeagueBoard board, MatchEventDTO event) {
+        // Already part of the snapshot this board was loaded from
+        Long loadedVersion = board.loadedVersions.get(event.getMatchId());
+        if (loadedVersion != null && event.getSequence() <= loadedVersion) {
+            return;
+        }
+        
+        int sign = event.getType() == MatchEventDTO.EventType.UNDO ? -1 : 1;
+        BallDTO ball = event.getBall();
+        board.adjust(Category.RUNS, ball.getBatsmanId(), sign * ball.getRuns());
+        if (ball.getIsWicket()) {
+            board.adjust(Category.WICKETS, ball.getBowlerId(), sign);
+        }
+    }
+    
+    private void admit(Long leagueId, LeagueBoard board, Long playerId) {
+        snapshotTemplate.executeWithoutResult(status -> {
+            Player player = playerRepository.findById(playerId)
+                    .filter(found -> found.getTeam().getLeague() != null
+                            && found.getTeam().getLeague().getId().equals(leagueId))
+                    .orElseThrow(() -> new RuntimeException("Player " + playerId + " not found in league: " + leagueId));
+            board.names.put(playerId, new String[] {player.getName(), player.getTeam().getName()});
+        });
+        synchronized (board) {
+            board.admit(playerId);
+        }
+    }
+    
+    private Map<String, Object> row(LeagueBoard board, Category category, long playerId, int index) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("rank", index + 1);
+        row.put("playerId", playerId);
+        row.put("value", board.scores(category).get(playerId));
+        return row;
+    }
+    
+    private List<Map<String, Object>> withNames(LeagueBoard board, List<Map<String, Object>> rows) {
+        List<Long> unknown = rows.stream()
+                .map(row -> (Long) row.get("playerId"))
+                .filter(playerId -> !board.names.containsKey(playerId))
+                .toList();
+        
+        // Only players added after the league was loaded need a lookup
+        if (!unknown.isEmpty()) {
+            snapshotTemplate.executeWithoutResult(status -> {
+                for (Player player : playerRepository.findAllById(unknown)) {
+                    board.names.put(player.getId(), new String[] {player.getName(), player.getTeam().getName()});
+                }
+            });
+        }
+        
+        for (Map<String, Object> row : rows) {
+            String[] names = board.names.get((Long) row.get("playerId"));
+            if (names != null) {
+                row.put("playerName", names[0]);
+                row.put("teamName", names[1]);
+            }
+        }
+        return rows;
+    }
+    
+    public enum Category {
+        RUNS, WICKETS
+    }
+    
+    private static final class LeagueBoard {
+        private final Map<Category, RankedScores> rankings = new HashMap<>();
+        private final Map<Category, Map<Long, Integer>> scores = new HashMap<>();
+        private final Map<Long, String[]> names = new ConcurrentHashMap<>();
+        private final Map<Long, Long> loadedVersions = new HashMap<>();
+        private final List<MatchEventDTO> pending = new ArrayList<>();
+        private boolean ready;
+        private boolean failed;
+        
+        private LeagueBoard() {
+            for (Category category : Category.values()) {
+                rankings.put(category, new RankedScores());
+                scores.put(category, new HashMap<>());
+            }
+        }
+        
+        private RankedScores ranking(Category category) {
+            return rankings.get(category);
+        }
+        
+        private Map<Long, Integer> scores(Category category) {
+            return scores.get(category);
+        }
+        
+        private void set(Category category, long playerId, int score) {
+            Integer previous = scores(category).put(playerId, score);
+            if (previous != null) {
+                ranking(category).remove(playerId, previous);
+            }
+            ranking(category).add(playerId, score);
+        }
+        
+        // Ranks a player at 0 in every category they are not in yet
+        private void admit(long playerId) {
+            for (Category category : Category.values()) {
+                if (!scores(category).containsKey(playerId)) {
+                    set(category, playerId, 0);
+                }
+            }
+        }
+        
+        private void adjust(Category category, long playerId, int delta) {
+            Integer current = scores(category).get(playerId);
+            set(category, playerId, (current != null ? current : 0) + delta);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.cricket.service;
+
+import com.cricket.dto.ScorecardDTO;
+import com.cricket.dto.ScorecardDeltaDTO;
+import com.cricket.entity.Match;
+import com.cricket.entity.MatchScorecard;
+import com.cricket.repository.MatchScorecardRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Keeps the scorecard of each live match in memory and serves reads from there.
+ * Per-ball changes are coalesced and written to match_scorecards on a short interval;
+ * over boundaries and match completion write through in the scoring transaction.
+ * Recent versions are kept alongside so clients can ask for just what changed.
+ */
+@Service
+public class LiveScorecardService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LiveScorecardService.class);
+    
+    // Fields compared when building a delta, in response order
+    private static final Map<String, Function<ScorecardDTO, Object>> DELTA_FIELDS = new LinkedHashMap<>();
+    
+    static {
+        DELTA_FIELDS.put("team1Runs", ScorecardDTO::getTeam1Runs);
+        DELTA_FIELDS.put("team1Wickets", ScorecardDTO::getTeam1Wickets);
+        DELTA_FIELDS.put("team1Overs", ScorecardDTO::getTeam1Overs);
+        DELTA_FIELDS.put("team2Runs", ScorecardDTO::getTeam2Runs);
+        DELTA_FIELDS.put("team2Wickets", ScorecardDTO::getTeam2Wickets);
+        DELTA_FIELDS.put("team2Overs", ScorecardDTO::getTeam2Overs);
+        DELTA_FIELDS.put("winningTeamId", ScorecardDTO::getWinningTeamId);
+        DELTA_FIELDS.put("winMargin", ScorecardDTO::getWinMargin);
+        DELTA_FIELDS.put("manOfTheMatchId", ScorecardDTO::getManOfTheMatchId);
+        DELTA_FIELDS.put("team1Name", ScorecardDTO::getTeam1Name);
+        DELTA_FIELDS.put("team2Name", ScorecardDTO::getTeam2Name);
+        DELTA_FIELDS.put("winningTeamName", ScorecardDTO::getWinningTeamName);
+        DELTA_FIELDS.put("manOfTheMatchName", ScorecardDTO::getManOfTheMatchName);
+    }
+    
+    @Autowired
+    private MatchScorecardRepository scorecardRepository;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    
+    private final ConcurrentMap<Long, LiveScorecard> scorecards = new ConcurrentHashMap<>();
+    
+    private final int historySize;
+    
+    public LiveScorecardService(PlatformTransactionManager transactionManager,
+                                @Value("${cricket.scorecard.delta-history:32}") int historySize) {
+        this.historySize = historySize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+    
+    /**
+     * Current scorecard for a match, from memory when the match is live
+     */
+    public ScorecardDTO getScorecard(Long matchId) {
+        LiveScorecard live = scorecards.get(matchId);
+        if (live != null) {
+            return new ScorecardDTO(live.current);
+        }
+        
+        return readOnlyTransactionTemplate.execute(status -> {
+            MatchScorecard scorecard = scorecardRepository.findWithTeamsByMatchId(matchId)
+                    .orElseThrow(() -> new RuntimeException("Scorecard not found for match: " + matchId));
+            ScorecardDTO loaded = new ScorecardDTO(scorecard);
+            
+            // Only live matches are kept resident; finished ones are read straight from the database
+            if (scorecard.getMatch().getStatus() == Match.MatchStatus.IN_PROGRESS) {
+                scorecards.putIfAbsent(matchId, new LiveScorecard(new ScorecardDTO(loaded), historySize));
+            }
+            return loaded;
+        });
+    }
+    
+    /**
+     * Version of a resident scorecard, or null when answering would need the database
+     */
+    public Long getVersion(Long matchId) {
+        LiveScorecard live = scorecards.get(matchId);
+        return live != null ? live.current.getVersion() : null;
+    }
+    
+    /**
+     * Fields that changed since the given version. When that version is no longer held
+     * the delta is marked full and carries every field.
+     */
+    public ScorecardDeltaDTO getScorecardDelta(Long matchId, Long since) {
+        ScorecardDTO current = getScorecard(matchId);
+        if (Objects.equals(since, current.getVersion())) {
+            return new ScorecardDeltaDTO(matchId, since, current.getVersion(), false, Map.of());
+        }
+        
+        LiveScorecard live = scorecards.get(matchId);
+        ScorecardDTO base = live != null ? live.at(since) : null;
+        
+        Map<String, Object> changes = new LinkedHashMap<>();
+        DELTA_FIELDS.forEach((field, getter) -> {
+            Object value = getter.apply(current);
+            if (base == null || !Objects.equals(getter.apply(base), value)) {
+                changes.put(field, value);
+            }
+        });
+        return new ScorecardDeltaDTO(matchId, since, current.getVersion(), base == null, changes);
+    }
+    
+    /**
+     * Working copy of a match's scorecard for the current scoring transaction
+     */
+    public ScorecardDTO edit(Match match) {
+        // Several writes for one match can share a transaction, so later ones build on earlier edits
+        ScorecardDTO staged = stagedInTransaction().get(match.getId());
+        if (staged != null) {
+            return new ScorecardDTO(staged);
+        }
+        
+        LiveScorecard live = scorecards.get(match.getId());
+        if (live != null) {
+            return new ScorecardDTO(live.current);
+        }
+        
+        MatchScorecard scorecard = match.getScorecard();
+        if (scorecard == null) {
+            scorecard = new MatchScorecard(match);
+            match.setScorecard(scorecard);
+            scorecardRepository.save(scorecard);
+        }
+        return new ScorecardDTO(scorecard);
+    }
+    
+    /**
+     * Publish an edited scorecard once the scoring transaction commits. With writeThrough the
+     * row is updated in the same transaction; otherwise it is left for the next flush.
+     */
+    public void stage(Match match, ScorecardDTO updated, boolean writeThrough) {
+        Long matchId = match.getId();
+        updated.setVersion(match.getStateVersion());
+        if (writeThrough) {
+            copyInto(updated, match.getScorecard());
+        }
+        stagedInTransaction().put(matchId, updated);
+        
+        afterCommit(() -> {
+            // The scoring write has committed by now, so a failure here is logged rather than thrown back at it
+            try {
+                LiveScorecard live = scorecards.computeIfAbsent(matchId, id -> new LiveScorecard(updated, historySize));
+                live.record(updated);
+                if (!writeThrough) {
+                    live.dirty.set(true);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not publish scorecard version {} of match {}", updated.getVersion(), matchId, e);
+            }
+        });
+    }
+    
+    /**
+     * Write any pending changes for a match within the current transaction
+     */
+    public void flush(Long matchId) {
+        LiveScorecard live = scorecards.get(matchId);
+        if (live != null && live.dirty.compareAndSet(true, false)) {
+            ScorecardDTO current = live.current;
+            scorecardRepository.findByMatchId(matchId)
+                    .filter(scorecard -> scorecard.getStateVersion() < current.getVersion())
+                    .ifPresent(scorecard -> copyInto(current, scorecard));
+        }
+    }
+    
+    /**
+     * Stop serving a match from memory once its final scorecard has been written
+     */
+    public void evict(Long matchId) {
+        afterCommit(() -> scorecards.remove(matchId));
+    }
+    
+    @Scheduled(fixedDelayString = "${cricket.scorecard.flush-interval-ms:2000}")
+    public void flushDirty() {
+        List<Map.Entry<Long, LiveScorecard>> pending = new ArrayList<>();
+        scorecards.forEach((matchId, live) -> {
+            // Clear the flag before reading so a concurrent update is picked up by the next flush
+            if (live.dirty.compareAndSet(true, false)) {
+                pending.add(Map.entry(matchId, live));
+            }
+        });
+        
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<Long, LiveScorecard> entry : pending) {
+                    // Skipped when a write-through or an earlier flush already stored a newer version
+                    scorecardRepository.updateIfNewer(entry.getKey(), entry.getValue().current);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Scorecard flush of {} matches failed, will retry", pending.size(), e);
+            pending.forEach(entry -> entry.getValue().dirty.set(true));
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flushDirty();
+    }
+    
+    private void copyInto(ScorecardDTO source, MatchScorecard target) {
+        target.setTeam1Runs(source.getTeam1Runs());
+        target.setTeam1Wickets(source.getTeam1Wickets());
+        target.setTeam1Overs(source.getTeam1Overs());
+        target.setTeam2Runs(source.getTeam2Runs());
+        target.setTeam2Wickets(source.getTeam2Wickets());
+        target.setTeam2Overs(source.getTeam2Overs());
+        target.setWinningTeamId(source.getWinningTeamId());
+        target.setWinMargin(source.getWinMargin());
+        target.setManOfTheMatchId(source.getManOfTheMatchId());
+        target.setStateVersion(source.getVersion());
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<Long, ScorecardDTO> stagedInTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>();
+        }
+        
+        Map<Long, ScorecardDTO> staged = (Map<Long, ScorecardDTO>) TransactionSynchronizationManager.getResource(this);
+        if (staged == null) {
+            Map<Long, ScorecardDTO> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LiveScorecardService.this);
+                }
+            });
+            staged = created;
+        }
+        return staged;
+    }
+    
+    private static final class LiveScorecard {
+        private volatile ScorecardDTO current;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final Deque<ScorecardDTO> history = new ArrayDeque<>();
+        private final int historySize;
+        
+        private LiveScorecard(ScorecardDTO current, int historySize) {
+            this.current = current;
+            this.historySize = historySize;
+            this.history.addLast(current);
+        }
+        
+        private synchronized void record(ScorecardDTO updated) {
+            current = updated;
+            if (history.peekLast() != updated) {
+                history.addLast(updated);
+            }
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+        
+        private synchronized ScorecardDTO at(Long version) {
+            Iterator<ScorecardDTO> newestFirst = history.descendingIterator();
+            while (newestFirst.hasNext()) {
+                ScorecardDTO scorecard = newestFirst.next();
+                if (Objects.equals(scorecard.getVersion(), version)) {
+                    return scorecard;
+                }
+            }
+            return null;
+        }
+    }
+}
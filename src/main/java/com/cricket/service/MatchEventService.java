@@ -0,0 +1,333 @@
+package com.cricket.service;
+
+import com.cricket.dto.MatchEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes committed scoring changes to Server-Sent Event subscribers. Each match keeps a short
+ * buffer of recent events keyed by state version so a reconnecting client can resume from
+ * its Last-Event-ID instead of re-reading the scorecard. Every subscriber has its own bounded
+ * outbox drained by a shared sender pool, so a slow client only delays itself.
+ */
+@Service
+public class MatchEventService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MatchEventService.class);
+    
+    private final ConcurrentMap<Long, MatchChannel> channels = new ConcurrentHashMap<>();
+    
+    private final int replayBufferSize;
+    
+    private final long emitterTimeoutMs;
+    
+    private final int subscriberQueueCapacity;
+    
+    private final int maxEventsPerDrain;
+    
+    private final long sendTimeoutNanos;
+    
+    private final ExecutorService senders;
+    
+    public MatchEventService(@Value("${cricket.events.replay-buffer:256}") int replayBufferSize,
+                             @Value("${cricket.events.sse-timeout-ms:1800000}") long emitterTimeoutMs,
+                             @Value("${cricket.events.sender-threads:0}") int senderThreads,
+                             @Value("${cricket.events.subscriber-queue:64}") int subscriberQueueCapacity,
+                             @Value("${cricket.events.max-events-per-drain:16}") int maxEventsPerDrain,
+                             @Value("${cricket.events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.replayBufferSize = replayBufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.maxEventsPerDrain = maxEventsPerDrain;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        
+        int threads = senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "match-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Open an event stream for a match, replaying buffered events newer than lastEventId
+     */
+    public SseEmitter subscribe(Long matchId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        MatchChannel channel = channel(matchId);
+        Subscriber subscriber = new Subscriber(matchId, emitter, subscriberQueueCapacity);
+        
+        emitter.onCompletion(() -> detach(channel, subscriber));
+        emitter.onTimeout(() -> detach(channel, subscriber));
+        emitter.onError(error -> detach(channel, subscriber));
+        
+        synchronized (channel) {
+            if (lastEventId != null) {
+                List<MatchEventDTO> missed = channel.eventsAfter(lastEventId);
+                if (missed == null || missed.size() > subscriberQueueCapacity) {
+                    // The client is further behind than the buffer reaches and must reload the scorecard
+                    subscriber.resync.set(true);
+                } else {
+                    missed.forEach(event -> subscriber.outbox.offer(() -> eventFor(event)));
+                }
+            }
+            channel.subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        
+        return emitter;
+    }
+    
+    /**
+     * Fan a scoring change out once the transaction that made it has committed
+     */
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish event for match {}", event.getMatchId(), e);
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        MatchChannel channel = channel(event.getMatchId());
+        List<Subscriber> subscribers;
+        
+        synchronized (channel) {
+            channel.record(event, replayBufferSize);
+            subscribers = new ArrayList<>(channel.subscribers);
+        }
+        
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.outbox.offer(() -> eventFor(event))) {
+                // Events cannot be skipped, so a subscriber this far behind starts again from the scorecard
+                subscriber.outbox.clear();
+                subscriber.resync.set(true);
+            }
+            schedule(subscriber);
+        }
+    }
+    
+    /**
+     * Stop buffering a finished match's events once the current transaction commits; the
+     * buffer goes as soon as its last subscriber has disconnected
+     */
+    public void evict(Long matchId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markCompleted(matchId);
+                }
+            });
+        } else {
+            markCompleted(matchId);
+        }
+    }
+    
+    public int getSubscriberCount(Long matchId) {
+        MatchChannel channel = channels.get(matchId);
+        return channel != null ? channel.subscribers.size() : 0;
+    }
+    
+    /**
+     * Keep idle streams open through proxies, drop subscribers stuck in a send and let go of
+     * buffers nobody is listening to
+     */
+    @Scheduled(fixedDelayString = "${cricket.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Map.Entry<Long, MatchChannel> entry : channels.entrySet()) {
+            MatchChannel channel = entry.getValue();
+            for (Subscriber subscriber : channel.subscribers) {
+                long startedAt = subscriber.sendStartedAt;
+                if (startedAt != 0 && now - startedAt > sendTimeoutNanos) {
+                    log.debug("Dropping subscriber of match {} stuck in a send", subscriber.matchId);
+                    detach(channel, subscriber);
+                    // Unblocks the write where the container allows it; the socket timeout covers the rest
+                    Thread sender = subscriber.sender;
+                    if (sender != null) {
+                        sender.interrupt();
+                    }
+                    continue;
+                }
+                subscriber.outbox.offer(() -> SseEmitter.event().comment("heartbeat"));
+                schedule(subscriber);
+            }
+            
+            boolean idle = now - channel.lastActivity > TimeUnit.MILLISECONDS.toNanos(emitterTimeoutMs);
+            if ((channel.completed || idle) && channel.subscribers.isEmpty()) {
+                channels.remove(entry.getKey(), channel);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+    
+    private MatchChannel channel(Long matchId) {
+        return channels.computeIfAbsent(matchId, id -> new MatchChannel());
+    }
+    
+    private void markCompleted(Long matchId) {
+        MatchChannel channel = channels.get(matchId);
+        if (channel == null) {
+            return;
+        }
+        channel.completed = true;
+        if (channel.subscribers.isEmpty()) {
+            channels.remove(matchId, channel);
+        }
+    }
+    
+    private void detach(MatchChannel channel, Subscriber subscriber) {
+        channel.subscribers.remove(subscriber);
+        subscriber.outbox.clear();
+        if (channel.completed && channel.subscribers.isEmpty()) {
+            channels.remove(subscriber.matchId, channel);
+        }
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        MatchChannel channel = channels.get(subscriber.matchId);
+        try {
+            int sent = 0;
+            if (subscriber.resync.getAndSet(false)) {
+                send(subscriber, SseEmitter.event()
+                        .name("resync")
+                        .data(Map.of("matchId", subscriber.matchId), MediaType.APPLICATION_JSON));
+                sent++;
+            }
+            
+            Supplier<SseEmitter.SseEventBuilder> next;
+            while (sent < maxEventsPerDrain && (next = subscriber.outbox.poll()) != null) {
+                send(subscriber, next.get());
+                sent++;
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping event subscriber for match {}", subscriber.matchId, e);
+            if (channel != null) {
+                detach(channel, subscriber);
+            }
+            return;
+        }
+        
+        // Give the sender back after a bounded run so one busy subscriber cannot starve the others
+        subscriber.sending.set(false);
+        if (subscriber.hasPending()) {
+            schedule(subscriber);
+        }
+    }
+    
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sender = Thread.currentThread();
+        subscriber.sendStartedAt = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.sender = null;
+            // An interrupt meant for a send that has since returned must not leak into the next task
+            Thread.interrupted();
+        }
+    }
+    
+    private static SseEmitter.SseEventBuilder eventFor(MatchEventDTO event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getSequence()))
+                .name(event.getType().name().toLowerCase())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+    
+    private static final class Subscriber {
+        private final Long matchId;
+        private final SseEmitter emitter;
+        // Builders are single-use, so each queued event is rendered when it is sent
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> outbox;
+        private final AtomicBoolean resync = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long sendStartedAt;
+        private volatile Thread sender;
+        
+        private Subscriber(Long matchId, SseEmitter emitter, int capacity) {
+            this.matchId = matchId;
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(capacity);
+        }
+        
+        private boolean hasPending() {
+            return resync.get() || !outbox.isEmpty();
+        }
+    }
+    
+    private static final class MatchChannel {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Deque<MatchEventDTO> recent = new ArrayDeque<>();
+        private volatile long lastActivity = System.nanoTime();
+        private volatile boolean completed;
+        
+        private void record(MatchEventDTO event, int capacity) {
+            lastActivity = System.nanoTime();
+            recent.addLast(event);
+            while (recent.size() > capacity) {
+                recent.removeFirst();
+            }
+        }
+        
+        /**
+         * Buffered events after the given sequence, or null when some of them have been dropped
+         */
+        private List<MatchEventDTO> eventsAfter(long sequence) {
+            // Nothing buffered (e.g. after a restart) means there is no way to tell what was missed
+            if (recent.isEmpty()) {
+                return null;
+            }
+            
+            List<MatchEventDTO> missed = new ArrayList<>();
+            long expected = sequence + 1;
+            for (MatchEventDTO event : recent) {
+                if (event.getSequence() < expected) {
+                    continue;
+                }
+                if (event.getSequence() > expected) {
+                    return null;
+                }
+                missed.add(event);
+                expected++;
+            }
+            return missed;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.cricket.service;
+
+import com.cricket.dto.MatchEventDTO;
+import com.cricket.entity.Ball;
+import com.cricket.entity.Innings;
+import com.cricket.entity.Match;
+import com.cricket.repository.BallRepository;
+import com.cricket.repository.InningsRepository;
+import com.cricket.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Over-by-over series of both innings of a match for worm and manhattan charts. A match in
+ * progress is read from the database once and then moved by each committed ball or undo,
+ * so reading its series never touches the database.
+ */
+@Service
+public class MatchProgressionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MatchProgressionService.class);
+    
+    @Autowired
+    private MatchRepository matchRepository;
+    
+    @Autowired
+    private InningsRepository inningsRepository;
+    
+    @Autowired
+    private BallRepository ballRepository;
+    
+    private final TransactionTemplate snapshotTemplate;
+    
+    private final ConcurrentMap<Long, Progression> progressions = new ConcurrentHashMap<>();
+    
+    public MatchProgressionService(PlatformTransactionManager transactionManager) {
+        // The match version and its balls are read together so later events can be matched up
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+    
+    /**
+     * Per-over runs, cumulative runs, wickets and run rate of every innings in the match
+     */
+    public Map<String, Object> getProgression(Long matchId) {
+        Progression progression = progressions.get(matchId);
+        if (progression == null) {
+            Progression created = new Progression();
+            progression = progressions.putIfAbsent(matchId, created);
+            if (progression == null) {
+                load(matchId, created);
+                return render(matchId, created);
+            }
+        }
+        
+        synchronized (progression) {
+            while (!progression.ready && !progression.failed) {
+                try {
+                    progression.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while loading progression for match: " + matchId, e);
+                }
+            }
+            if (progression.failed) {
+                throw new RuntimeException("Progression could not be loaded for match: " + matchId);
+            }
+        }
+        return render(matchId, progression);
+    }
+    
+    /**
+     * Stop keeping a finished match's series in memory
+     */
+    public void evict(Long matchId) {
+        progressions.remove(matchId);
+    }
+    
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply ball to progression of match {}, reloading it on next read", event.getMatchId(), e);
+            progressions.remove(event.getMatchId());
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        Progression progression = progressions.get(event.getMatchId());
+        if (progression == null) {
+            return;
+        }
+        
+        synchronized (progression) {
+            if (!progression.ready) {
+                progression.pending.add(event);
+                return;
+            }
+            progression.apply(event);
+        }
+    }
+    
+    private void load(Long matchId, Progression progression) {
+        boolean live;
+        try {
+            live = snapshotTemplate.execute(status -> {
+                Match match = matchRepository.findById(matchId)
+                        .orElseThrow(() -> new RuntimeException("Match not found with id: " + matchId));
+                
+                // Events only touch the series once it is marked ready, so no lock is held while reading
+                progression.version = match.getStateVersion();
+                for (Innings innings : inningsRepository.findByMatchIdOrderByInningsNumber(matchId)) {
+                    progression.series(innings.getInningsNumber(), innings.getBattingTeam().getId());
+                }
+                for (Ball ball : ballRepository.findByMatchIdOrderBySequence(matchId)) {
+                    Innings innings = ball.getInnings();
+                    progression.series(innings.getInningsNumber(), innings.getBattingTeam().getId())
+                            .add(ball.getOverNumber(), ball.getRuns(), ball.getIsWicket(), isLegal(ball.getIsWide(), ball.getIsNoBall()), 1);
+                }
+                return match.getStatus() == Match.MatchStatus.IN_PROGRESS;
+            });
+        } catch (RuntimeException e) {
+            progressions.remove(matchId, progression);
+            synchronized (progression) {
+                progression.failed = true;
+                progression.notifyAll();
+            }
+            throw e;
+        }
+        
+        synchronized (progression) {
+            for (MatchEventDTO event : progression.pending) {
+                progression.apply(event);
+            }
+            progression.pending.clear();
+            progression.ready = true;
+            progression.notifyAll();
+        }
+        
+        if (!live) {
+            // Only matches being scored are kept; others are read again when asked for
+            progressions.remove(matchId, progression);
+        }
+    }
+    
+    private Map<String, Object> render(Long matchId, Progression progression) {
+        List<Map<String, Object>> innings = new ArrayList<>();
+        long version;
+        synchronized (progression) {
+            for (OverSeries series : progression.innings.values()) {
+                innings.add(series.toMap());
+            }
+            version = progression.version;
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matchId", matchId);
+        result.put("version", version);
+        result.put("innings", innings);
+        return result;
+    }
+    
+    private static boolean isLegal(boolean wide, boolean noBall) {
+        return !wide && !noBall;
+    }
+    
+    private static final class Progression {
+        private final SortedMap<Integer, OverSeries> innings = new TreeMap<>();
+        private final List<MatchEventDTO> pending = new ArrayList<>();
+        private long version;
+        private boolean ready;
+        private boolean failed;
+        
+        private OverSeries series(Integer inningsNumber, Long battingTeamId) {
+            return innings.computeIfAbsent(inningsNumber, number -> new OverSeries(number, battingTeamId));
+        }
+        
+        private void apply(MatchEventDTO event) {
+            // Already part of the snapshot this series was loaded from
+            if (event.getSequence() <= version) {
+                return;
+            }
+            version = event.getSequence();
+            
+            int sign = event.getType() == MatchEventDTO.EventType.UNDO ? -1 : 1;
+            series(event.getInningsNumber(), event.getBattingTeamId())
+                    .add(event.getOverNumber(), event.getBall().getRuns(), event.getBall().getIsWicket(),
+                            isLegal(event.getBall().getIsWide(), event.getBall().getIsNoBall()), sign);
+        }
+    }
+}
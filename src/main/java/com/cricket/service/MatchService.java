@@ -1,20 +1,33 @@
 package com.cricket.service;
 
+import com.cricket.dto.BallDTO;
+import com.cricket.dto.MatchEventDTO;
+import com.cricket.dto.ScorecardDTO;
 import com.cricket.entity.*;
 import com.cricket.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Stack;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MatchService {
     
+    private static final Logger log = LoggerFactory.getLogger(MatchService.class);
+    
     @Autowired
     private MatchRepository matchRepository;
     
@@ -33,8 +46,64 @@ public class MatchService {
     @Autowired
     private LeagueRepository leagueRepository;
     
-    // Stack for undo functionality
-    private final Stack<Ball> undoStack = new Stack<>();
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private ScoringService scoringService;
+    
+    // When enabled, every incremental innings update is checked against a full replay
+    @Value("${cricket.scoring.reconcile-innings:false}")
+    private boolean reconcileInnings;
+    
+    @Autowired
+    private UndoneBallRepository undoneBallRepository;
+    
+    @Autowired
+    private BallJournalService ballJournalService;
+    
+    @Autowired
+    private LiveScorecardService liveScorecardService;
+    
+    @Autowired
+    private DeliveryDedupeService deliveryDedupeService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CompletedScorecardCache completedScorecardCache;
+    
+    @Autowired
+    private PlayerInningsService playerInningsService;
+    
+    @Autowired
+    private LiveLeaderboardService liveLeaderboardService;
+    
+    @Autowired
+    private StandingsService standingsService;
+    
+    @Autowired
+    private PartnershipService partnershipService;
+    
+    @Autowired
+    private MatchProgressionService matchProgressionService;
+    
+    @Autowired
+    private LeagueBallStore leagueBallStore;
+    
+    @Autowired
+    private AwardSnapshotService awardSnapshotService;
+    
+    @Autowired
+    private MatchWaitService matchWaitService;
+    
+    @Autowired
+    private MatchEventService matchEventService;
+    
+    // How many consecutive balls a match may undo (and therefore redo)
+    @Value("${cricket.scoring.undo-depth:12}")
+    private int undoDepth;
     
     public Match createMatch(Match match) {
         return matchRepository.save(match);
@@ -72,6 +141,10 @@ public class MatchService {
         Match match = matchRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
         matchRepository.delete(match);
+        liveLeaderboardService.evict(match.getLeague().getId());
+        standingsService.evict(match.getLeague().getId());
+        leagueBallStore.evict(match.getLeague().getId());
+        awardSnapshotService.refresh(match.getLeague().getId());
     }
     
     public Match startMatch(Long id) {
@@ -91,17 +164,59 @@ public class MatchService {
     }
     
     public Match completeMatch(Long id) {
-        Match match = matchRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
+        Match match = lockMatch(id);
         
         match.setStatus(Match.MatchStatus.COMPLETED);
+        // The result is a scorecard change too, so cached copies must not match it
+        nextStateVersion(match);
         
-        // Update final scorecard
+        // Write the final scorecard in this transaction, then stop serving it from memory
+        liveScorecardService.flush(id);
         updateMatchScorecard(match);
+        liveScorecardService.evict(id);
+        standingsService.recordResult(match.getScorecard());
+        partnershipService.evictMatch(id);
+        matchProgressionService.evict(id);
+        awardSnapshotService.refresh(match.getLeague().getId());
+        // Completion publishes no ball event, so parked long-polls are answered here
+        matchWaitService.release(id);
+        matchEventService.evict(id);
         
         return matchRepository.save(match);
     }
     
+    /**
+     * Admin correction of a completed match's scorecard. Only the fields supplied are changed,
+     * and the rendered copy served to readers is dropped once the correction commits.
+     */
+    public MatchScorecard correctScorecard(Long matchId, ScorecardDTO correction) {
+        Match match = lockMatch(matchId);
+        
+        if (match.getStatus() != Match.MatchStatus.COMPLETED) {
+            throw new RuntimeException("Only completed matches can be corrected: " + matchId);
+        }
+        
+        // Teams are fetched with it so the corrected scorecard can be rendered after the transaction
+        MatchScorecard scorecard = scorecardRepository.findWithTeamsByMatchId(matchId)
+                .orElseThrow(() -> new RuntimeException("Scorecard not found for match: " + matchId));
+        
+        if (correction.getTeam1Runs() != null) scorecard.setTeam1Runs(correction.getTeam1Runs());
+        if (correction.getTeam1Wickets() != null) scorecard.setTeam1Wickets(correction.getTeam1Wickets());
+        if (correction.getTeam1Overs() != null) scorecard.setTeam1Overs(correction.getTeam1Overs());
+        if (correction.getTeam2Runs() != null) scorecard.setTeam2Runs(correction.getTeam2Runs());
+        if (correction.getTeam2Wickets() != null) scorecard.setTeam2Wickets(correction.getTeam2Wickets());
+        if (correction.getTeam2Overs() != null) scorecard.setTeam2Overs(correction.getTeam2Overs());
+        if (correction.getWinningTeamId() != null) scorecard.setWinningTeamId(correction.getWinningTeamId());
+        if (correction.getWinMargin() != null) scorecard.setWinMargin(correction.getWinMargin());
+        if (correction.getManOfTheMatchId() != null) scorecard.setManOfTheMatchId(correction.getManOfTheMatchId());
+        
+        scorecard.setStateVersion(nextStateVersion(match));
+        completedScorecardCache.evict(matchId);
+        standingsService.recordResult(scorecard);
+        
+        return scorecardRepository.save(scorecard);
+    }
+    
     public Innings startInnings(Long matchId, Long battingTeamId, Long bowlingTeamId, Integer inningsNumber) {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found with id: " + matchId));
@@ -115,54 +230,302 @@ public class MatchService {
         Innings innings = new Innings(match, battingTeam, bowlingTeam, inningsNumber);
         innings.setStatus(Innings.InningsStatus.IN_PROGRESS);
         
+        // Persist the live scorecard at the innings break
+        liveScorecardService.flush(matchId);
+        
         return inningsRepository.save(innings);
     }
     
     public Ball addBall(Long matchId, Integer inningsNumber, Ball ballData) {
-        Innings innings = inningsRepository.findByMatchIdAndInningsNumber(matchId, inningsNumber)
+        // Row lock keeps over/ball numbering consistent when another instance scores the same innings
+        Innings innings = inningsRepository.findByMatchIdAndInningsNumberForUpdate(matchId, inningsNumber)
                 .orElseThrow(() -> new RuntimeException("Innings not found"));
         
-        // Add to undo stack before saving
-        undoStack.push(ballData);
+        // A retried delivery returns the ball stored the first time
+        if (ballData.getDeliveryKey() != null) {
+            Optional<Ball> existing = ballRepository.findByInningsIdAndDeliveryKey(innings.getId(), ballData.getDeliveryKey());
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        
+        // A new delivery makes anything previously undone unreachable
+        undoneBallRepository.deleteByMatchId(matchId);
         
-        // Calculate over and ball numbers
-        List<Ball> existingBalls = ballRepository.findByInningsIdOrderByOverAndBall(innings.getId());
-        int totalBalls = existingBalls.size();
-        int overNumber = totalBalls / 6;
-        int ballNumber = (totalBalls % 6) + 1;
+        return insertBall(innings, ballData);
+    }
+    
+    private Ball insertBall(Innings innings, Ball ballData) {
+        // Over and ball numbers follow the legal delivery count kept on the innings
+        int legalBalls = innings.getLegalBalls();
+        int overNumber = legalBalls / 6;
+        int ballNumber = (legalBalls % 6) + 1;
         
         ballData.setInnings(innings);
         ballData.setOverNumber(overNumber);
         ballData.setBallNumber(ballNumber);
+        ballData.setSequenceNumber(nextStateVersion(innings.getMatch()));
+        attachPlayers(ballData);
         
         Ball savedBall = ballRepository.save(ballData);
         
-        // Update innings statistics
-        updateInningsStatistics(innings);
+        // Apply only this delivery to the innings totals and the players' figures
+        applyBallDelta(innings, savedBall, 1);
+        playerInningsService.apply(innings, List.of(savedBall), 1);
+        if (reconcileInnings) {
+            reconcileInningsStatistics(innings);
+        }
+        inningsRepository.save(innings);
+        
+        boolean overCompleted = completesOver(innings, savedBall);
+        if (overCompleted) {
+            ballJournalService.snapshot(innings, savedBall.getSequenceNumber());
+        }
+        
+        // Live scorecard is written through at over boundaries and coalesced in between
+        updateMatchScorecard(innings.getMatch(), innings, overCompleted);
         
-        // Update match scorecard
-        updateMatchScorecard(innings.getMatch());
+        // Delivered to live subscribers only if this transaction commits
+        eventPublisher.publishEvent(new MatchEventDTO(MatchEventDTO.EventType.BALL,
+                savedBall.getSequenceNumber(), innings, savedBall));
         
         return savedBall;
     }
     
+    /**
+     * Validate a batch of deliveries in one pass. Returns one entry per ball: null when the
+     * ball is valid, otherwise the reason it was rejected.
+     */
+    @Transactional(readOnly = true)
+    public List<String> validateBalls(List<Ball> balls) {
+        List<String> errors = new ArrayList<>(balls.size());
+        
+        for (Ball ball : balls) {
+            if (ball.getBatsman() == null || ball.getBatsman().getId() == null) {
+                errors.add("Batsman is required");
+            } else if (ball.getBowler() == null || ball.getBowler().getId() == null) {
+                errors.add("Bowler is required");
+            } else if (!scoringService.validateBallScoring(ball)) {
+                errors.add("Ball violates scoring rules");
+            } else {
+                errors.add(null);
+            }
+        }
+        
+        return errors;
+    }
+    
+    /**
+     * Add an ordered batch of deliveries to an innings. The innings and scorecard are
+     * written once for the whole batch, and the batch is applied all-or-nothing.
+     * The returned list lines up with the input; a ball whose delivery key was already
+     * stored comes back as the stored instance rather than the one submitted.
+     */
+    public List<Ball> addBalls(Long matchId, Integer inningsNumber, List<Ball> balls) {
+        Innings innings = inningsRepository.findByMatchIdAndInningsNumberForUpdate(matchId, inningsNumber)
+                .orElseThrow(() -> new RuntimeException("Innings not found"));
+        
+        // Balls already stored under the same delivery key (a replayed batch) are returned as they are
+        Map<String, Ball> stored = new HashMap<>();
+        List<String> deliveryKeys = balls.stream()
+                .map(Ball::getDeliveryKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!deliveryKeys.isEmpty()) {
+            ballRepository.findByInningsIdAndDeliveryKeyIn(innings.getId(), deliveryKeys)
+                    .forEach(ball -> stored.put(ball.getDeliveryKey(), ball));
+        }
+        
+        List<Ball> results = new ArrayList<>(balls.size());
+        List<Ball> newBalls = new ArrayList<>();
+        List<MatchEventDTO> events = new ArrayList<>();
+        boolean overCompleted = false;
+        for (Ball ball : balls) {
+            Ball existing = ball.getDeliveryKey() != null ? stored.get(ball.getDeliveryKey()) : null;
+            if (existing != null) {
+                results.add(existing);
+                continue;
+            }
+            
+            int legalBalls = innings.getLegalBalls();
+            ball.setInnings(innings);
+            ball.setOverNumber(legalBalls / 6);
+            ball.setBallNumber((legalBalls % 6) + 1);
+            ball.setSequenceNumber(nextStateVersion(innings.getMatch()));
+            attachPlayers(ball);
+            
+            applyBallDelta(innings, ball, 1);
+            overCompleted |= completesOver(innings, ball);
+            
+            if (ball.getDeliveryKey() != null) {
+                stored.put(ball.getDeliveryKey(), ball);
+            }
+            // Each event carries the innings totals as they stood after its own ball
+            events.add(new MatchEventDTO(MatchEventDTO.EventType.BALL, ball.getSequenceNumber(), innings, ball));
+            newBalls.add(ball);
+            results.add(ball);
+        }
+        
+        if (newBalls.isEmpty()) {
+            return results;
+        }
+        
+        undoneBallRepository.deleteByMatchId(matchId);
+        ballRepository.saveAll(newBalls);
+        playerInningsService.apply(innings, newBalls, 1);
+        for (int i = 0; i < newBalls.size(); i++) {
+            events.get(i).getBall().setId(newBalls.get(i).getId());
+        }
+        
+        if (reconcileInnings) {
+            reconcileInningsStatistics(innings);
+        }
+        inningsRepository.save(innings);
+        
+        // One snapshot at the end of the batch is enough to bound the next replay
+        if (overCompleted) {
+            ballJournalService.snapshot(innings, newBalls.get(newBalls.size() - 1).getSequenceNumber());
+        }
+        
+        updateMatchScorecard(innings.getMatch(), innings, overCompleted);
+        
+        events.forEach(eventPublisher::publishEvent);
+        
+        return results;
+    }
+    
+    /**
+     * Remove the most recent ball of a match and keep it in the match's redo log.
+     * The ball itself is the undo record, so this works from any instance.
+     */
     public void undoLastBall(Long matchId) {
-        if (undoStack.isEmpty()) {
-            throw new RuntimeException("No balls to undo");
+        // Lock every innings of the match so concurrent scorers see a consistent last ball
+        List<Innings> matchInnings = inningsRepository.findByMatchIdForUpdate(matchId);
+        
+        if (undoneBallRepository.countByMatchId(matchId) >= undoDepth) {
+            throw new RuntimeException("Undo limit of " + undoDepth + " balls reached for match: " + matchId);
         }
         
-        Ball lastBall = undoStack.pop();
+        Ball lastBall = ballRepository.findLastBallByMatchId(matchId)
+                .orElseThrow(() -> new RuntimeException("No balls to undo"));
+        
+        Innings innings = matchInnings.stream()
+                .filter(inning -> inning.getId().equals(lastBall.getInnings().getId()))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Innings not found"));
+        
+        undoneBallRepository.save(new UndoneBall(matchId, lastBall));
         ballRepository.delete(lastBall);
+        if (lastBall.getDeliveryKey() != null) {
+            deliveryDedupeService.forget(matchId, innings.getInningsNumber(), lastBall.getDeliveryKey());
+        }
+        ballJournalService.discardSnapshotsFrom(innings, lastBall.getSequenceNumber());
+        long version = nextStateVersion(innings.getMatch());
+        
+        // Reverse just this delivery
+        applyBallDelta(innings, lastBall, -1);
+        playerInningsService.apply(innings, List.of(lastBall), -1);
+        if (reconcileInnings) {
+            reconcileInningsStatistics(innings);
+        }
+        inningsRepository.save(innings);
+        
+        updateMatchScorecard(innings.getMatch(), innings, false);
         
-        // Recalculate innings statistics
-        Innings innings = lastBall.getInnings();
-        updateInningsStatistics(innings);
+        eventPublisher.publishEvent(new MatchEventDTO(MatchEventDTO.EventType.UNDO, version, innings, lastBall));
+    }
+    
+    /**
+     * Re-apply the most recently undone ball of a match
+     */
+    public Ball redoLastBall(Long matchId) {
+        List<Innings> matchInnings = inningsRepository.findByMatchIdForUpdate(matchId);
+        
+        UndoneBall undone = undoneBallRepository.findTopByMatchIdOrderByIdDesc(matchId)
+                .orElseThrow(() -> new RuntimeException("No balls to redo"));
+        
+        Innings innings = matchInnings.stream()
+                .filter(inning -> inning.getInningsNumber().equals(undone.getInningsNumber()))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Innings not found"));
+        
+        Ball ball = new Ball();
+        ball.setDeliveryKey(undone.getDeliveryKey());
+        ball.setBatsman(undone.getBatsman());
+        ball.setBowler(undone.getBowler());
+        ball.setRuns(undone.getRuns());
+        ball.setIsWicket(undone.getIsWicket());
+        ball.setWicketType(undone.getWicketType());
+        ball.setExtraType(undone.getExtraType());
+        ball.setExtraRuns(undone.getExtraRuns());
+        ball.setIsWide(undone.getIsWide());
+        ball.setIsNoBall(undone.getIsNoBall());
+        ball.setIsBye(undone.getIsBye());
+        ball.setIsLegBye(undone.getIsLegBye());
         
-        // Update match scorecard
-        updateMatchScorecard(innings.getMatch());
+        undoneBallRepository.delete(undone);
+        Ball redone = insertBall(innings, ball);
+        if (redone.getDeliveryKey() != null) {
+            // Retries of the original post are answered with the redone ball again
+            deliveryDedupeService.remember(matchId, innings.getInningsNumber(), redone.getDeliveryKey(), new BallDTO(redone));
+        }
+        return redone;
+    }
+    
+    /**
+     * Swap the id-only players sent by clients for managed references
+     */
+    private void attachPlayers(Ball ball) {
+        if (ball.getBatsman() != null && ball.getBatsman().getId() != null) {
+            ball.setBatsman(playerRepository.getReferenceById(ball.getBatsman().getId()));
+        }
+        if (ball.getBowler() != null && ball.getBowler().getId() != null) {
+            ball.setBowler(playerRepository.getReferenceById(ball.getBowler().getId()));
+        }
+    }
+    
+    /**
+     * Lock a match for a change that advances its state version outside of scoring. Its innings
+     * are locked first, in the same order ball writers take them, so this waits for any ball
+     * in flight and no two writers read the same version.
+     */
+    private Match lockMatch(Long matchId) {
+        inningsRepository.findByMatchIdForUpdate(matchId);
+        return matchRepository.findByIdForUpdate(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found with id: " + matchId));
+    }
+    
+    /**
+     * Advance the match state version; every ball is stamped with the version it produced
+     */
+    private long nextStateVersion(Match match) {
+        long version = match.getStateVersion() + 1;
+        match.setStateVersion(version);
+        return version;
     }
     
-    private void updateInningsStatistics(Innings innings) {
+    private boolean completesOver(Innings innings, Ball ball) {
+        return !ball.getIsWide() && !ball.getIsNoBall() && innings.getLegalBalls() % 6 == 0;
+    }
+    
+    /**
+     * Apply a single delivery to the innings totals (sign = 1 to add, -1 to remove)
+     */
+    private void applyBallDelta(Innings innings, Ball ball, int sign) {
+        innings.setTotalRuns(innings.getTotalRuns() + sign * ball.getRuns());
+        if (ball.getIsWicket()) {
+            innings.setWickets(innings.getWickets() + sign);
+        }
+        if (!ball.getIsWide() && !ball.getIsNoBall()) {
+            innings.setLegalBalls(innings.getLegalBalls() + sign);
+        }
+        innings.setOvers(innings.getLegalBalls() / 6.0);
+    }
+    
+    /**
+     * Recompute innings totals from every ball in the innings
+     */
+    private void replayInningsStatistics(Innings innings) {
         List<Ball> balls = ballRepository.findByInningsIdOrderByOverAndBall(innings.getId());
         
         int totalRuns = 0;
@@ -181,9 +544,26 @@ public class MatchService {
         
         innings.setTotalRuns(totalRuns);
         innings.setWickets(wickets);
+        innings.setLegalBalls(validBalls);
         innings.setOvers(validBalls / 6.0);
+    }
+    
+    /**
+     * Check incrementally maintained totals against a full replay and correct any drift
+     */
+    private void reconcileInningsStatistics(Innings innings) {
+        int runs = innings.getTotalRuns();
+        int wickets = innings.getWickets();
+        int legalBalls = innings.getLegalBalls();
         
-        inningsRepository.save(innings);
+        replayInningsStatistics(innings);
+        
+        if (runs != innings.getTotalRuns() || wickets != innings.getWickets()
+                || legalBalls != innings.getLegalBalls()) {
+            log.warn("Innings {} drifted from replay: incremental {}/{} in {} balls, replay {}/{} in {} balls",
+                    innings.getId(), runs, wickets, legalBalls,
+                    innings.getTotalRuns(), innings.getWickets(), innings.getLegalBalls());
+        }
     }
     
     private void updateMatchScorecard(Match match) {
@@ -210,6 +590,23 @@ public class MatchService {
         scorecardRepository.save(scorecard);
     }
     
+    private void updateMatchScorecard(Match match, Innings inning, boolean writeThrough) {
+        ScorecardDTO scorecard = liveScorecardService.edit(match);
+        
+        // Only the innings that changed needs to be copied across
+        if (inning.getBattingTeam().getId().equals(match.getTeam1().getId())) {
+            scorecard.setTeam1Runs(inning.getTotalRuns());
+            scorecard.setTeam1Wickets(inning.getWickets());
+            scorecard.setTeam1Overs(inning.getOvers());
+        } else if (inning.getBattingTeam().getId().equals(match.getTeam2().getId())) {
+            scorecard.setTeam2Runs(inning.getTotalRuns());
+            scorecard.setTeam2Wickets(inning.getWickets());
+            scorecard.setTeam2Overs(inning.getOvers());
+        }
+        
+        liveScorecardService.stage(match, scorecard, writeThrough);
+    }
+    
     @Transactional(readOnly = true)
     public MatchScorecard getMatchScorecard(Long matchId) {
         return scorecardRepository.findByMatchId(matchId)
@@ -0,0 +1,228 @@
+package com.cricket.service;
+
+import com.cricket.dto.MatchEventDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans live match updates out to WebSocket viewers. Each update is serialised once into a
+ * shared frame and handed to every subscriber of the match. Viewers have their own bounded
+ * outbox drained by a shared sender pool; scorecard frames are conflated so a slow viewer
+ * only ever receives the latest one.
+ */
+@Service
+public class MatchStreamHub {
+    
+    private static final Logger log = LoggerFactory.getLogger(MatchStreamHub.class);
+    
+    @Autowired
+    private LiveScorecardService liveScorecardService;
+    
+    private final ObjectMapper objectMapper;
+    
+    private final ExecutorService senders;
+    
+    private final int sessionQueueCapacity;
+    
+    private final int maxFramesPerDrain;
+    
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    
+    private final Counter resyncs;
+    
+    private final TextMessage resyncFrame;
+    
+    public MatchStreamHub(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${cricket.websocket.sender-threads:0}") int senderThreads,
+                          @Value("${cricket.websocket.session-queue:64}") int sessionQueueCapacity,
+                          @Value("${cricket.websocket.max-frames-per-drain:16}") int maxFramesPerDrain) {
+        this.objectMapper = objectMapper;
+        this.sessionQueueCapacity = sessionQueueCapacity;
+        this.maxFramesPerDrain = maxFramesPerDrain;
+        
+        int threads = senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "match-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("cricket.stream.sessions", sessionCount, AtomicInteger::get)
+                .description("Open WebSocket viewer sessions")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("cricket.stream.resyncs")
+                .description("Viewers that fell behind and had queued ball frames dropped")
+                .register(meterRegistry);
+        this.resyncFrame = frame(Topic.RESYNC, Map.of());
+    }
+    
+    /**
+     * Start sending a match's updates to a viewer, beginning with the current scorecard
+     */
+    public Subscriber subscribe(Long matchId, WebSocketSession session, Set<Topic> topics) {
+        Subscriber subscriber = new Subscriber(matchId, session, topics, sessionQueueCapacity);
+        subscribers.computeIfAbsent(matchId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        sessionCount.incrementAndGet();
+        
+        if (topics.contains(Topic.SCORECARD)) {
+            try {
+                subscriber.latestScorecard.set(frame(Topic.SCORECARD, liveScorecardService.getScorecard(matchId)));
+                schedule(subscriber);
+            } catch (RuntimeException e) {
+                // No scorecard until the match starts; the first ball will carry one
+                log.debug("No scorecard yet for match {}", matchId);
+            }
+        }
+        return subscriber;
+    }
+    
+    public void unsubscribe(Subscriber subscriber) {
+        Set<Subscriber> matchSubscribers = subscribers.get(subscriber.matchId);
+        if (matchSubscribers != null && matchSubscribers.remove(subscriber)) {
+            sessionCount.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Serialise a committed change once and queue the same frames for every viewer of the match
+     */
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not push ball to stream viewers of match {}", event.getMatchId(), e);
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        Set<Subscriber> matchSubscribers = subscribers.get(event.getMatchId());
+        if (matchSubscribers == null || matchSubscribers.isEmpty()) {
+            return;
+        }
+        
+        TextMessage ballFrame = frame(Topic.BALLS, event);
+        TextMessage scorecardFrame = frame(Topic.SCORECARD, liveScorecardService.getScorecard(event.getMatchId()));
+        
+        for (Subscriber subscriber : matchSubscribers) {
+            if (subscriber.topics.contains(Topic.BALLS) && !subscriber.frames.offer(ballFrame)) {
+                // Balls cannot be conflated, so a viewer this far behind starts again from the scorecard
+                subscriber.frames.clear();
+                subscriber.resync.set(true);
+                resyncs.increment();
+            }
+            if (subscriber.topics.contains(Topic.SCORECARD)) {
+                subscriber.latestScorecard.set(scorecardFrame);
+            }
+            schedule(subscriber);
+        }
+    }
+    
+    public int getSubscriberCount(Long matchId) {
+        Set<Subscriber> matchSubscribers = subscribers.get(matchId);
+        return matchSubscribers != null ? matchSubscribers.size() : 0;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            int sent = 0;
+            if (subscriber.resync.getAndSet(false)) {
+                subscriber.session.sendMessage(resyncFrame);
+                sent++;
+            }
+            
+            TextMessage frame;
+            while (sent < maxFramesPerDrain && (frame = subscriber.frames.poll()) != null) {
+                subscriber.session.sendMessage(frame);
+                sent++;
+            }
+            
+            // The scorecard goes after the balls it reflects
+            if (subscriber.frames.isEmpty()) {
+                TextMessage scorecard = subscriber.latestScorecard.getAndSet(null);
+                if (scorecard != null) {
+                    subscriber.session.sendMessage(scorecard);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping viewer {} of match {}", subscriber.session.getId(), subscriber.matchId, e);
+            unsubscribe(subscriber);
+            return;
+        }
+        
+        // Give the sender back after a bounded run so one busy viewer cannot starve the others
+        subscriber.sending.set(false);
+        if (subscriber.hasPending()) {
+            schedule(subscriber);
+        }
+    }
+    
+    private TextMessage frame(Topic topic, Object payload) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(Map.of("topic", topic.name().toLowerCase(), "data", payload)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialise " + topic + " frame", e);
+        }
+    }
+    
+    public enum Topic {
+        BALLS, SCORECARD, RESYNC
+    }
+    
+    public static final class Subscriber {
+        private final Long matchId;
+        private final WebSocketSession session;
+        private final Set<Topic> topics;
+        private final BlockingQueue<TextMessage> frames;
+        private final AtomicReference<TextMessage> latestScorecard = new AtomicReference<>();
+        private final AtomicBoolean resync = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        
+        private Subscriber(Long matchId, WebSocketSession session, Set<Topic> topics, int capacity) {
+            this.matchId = matchId;
+            this.session = session;
+            this.topics = topics;
+            this.frames = new ArrayBlockingQueue<>(capacity);
+        }
+        
+        private boolean hasPending() {
+            return resync.get() || !frames.isEmpty() || latestScorecard.get() != null;
+        }
+    }
+}
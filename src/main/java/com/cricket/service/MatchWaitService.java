@@ -0,0 +1,148 @@
+package com.cricket.service;
+
+import com.cricket.dto.MatchEventDTO;
+import com.cricket.dto.ScorecardDeltaDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parks long-poll requests until a match moves past the client's cursor. Each parked request
+ * is one callback on its match, run after the scoring commit, so it holds no servlet thread;
+ * requests that time out remove their callback and idle matches keep no entry.
+ */
+@Service
+public class MatchWaitService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MatchWaitService.class);
+    
+    @Autowired
+    private LiveScorecardService liveScorecardService;
+    
+    // Callbacks of the requests parked on each match; a match with none has no entry
+    private final ConcurrentMap<Long, Set<Runnable>> waiters = new ConcurrentHashMap<>();
+    
+    private final long defaultTimeoutMs;
+    
+    private final long maxTimeoutMs;
+    
+    public MatchWaitService(@Value("${cricket.long-poll.timeout-ms:25000}") long defaultTimeoutMs,
+                            @Value("${cricket.long-poll.max-timeout-ms:60000}") long maxTimeoutMs) {
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+    
+    /**
+     * Scorecard changes after the cursor version, answered as soon as there are any.
+     * Times out with 204 when the match does not move.
+     */
+    public DeferredResult<ResponseEntity<ScorecardDeltaDTO>> waitForChange(Long matchId, Long cursor, Long timeoutMs) {
+        long timeout = timeoutMs != null ? Math.min(Math.max(timeoutMs, 0), maxTimeoutMs) : defaultTimeoutMs;
+        DeferredResult<ResponseEntity<ScorecardDeltaDTO>> result =
+                new DeferredResult<>(timeout, ResponseEntity.noContent().build());
+        
+        Runnable waiter = () -> {
+            if (!result.isSetOrExpired()) {
+                result.setResult(changesSince(matchId, cursor));
+            }
+        };
+        // A request that times out or finishes otherwise takes its callback with it
+        result.onTimeout(() -> detach(matchId, waiter));
+        result.onCompletion(() -> detach(matchId, waiter));
+        
+        // Register before reading the version so a ball committed in between still wakes us
+        waiters.compute(matchId, (id, parked) -> {
+            Set<Runnable> callbacks = parked != null ? parked : ConcurrentHashMap.newKeySet();
+            callbacks.add(waiter);
+            return callbacks;
+        });
+        
+        Long current;
+        try {
+            current = liveScorecardService.getVersion(matchId);
+            if (current == null) {
+                current = liveScorecardService.getScorecard(matchId).getVersion();
+            }
+        } catch (RuntimeException e) {
+            detach(matchId, waiter);
+            throw e;
+        }
+        
+        if (current > cursor) {
+            detach(matchId, waiter);
+            result.setResult(changesSince(matchId, cursor));
+        }
+        return result;
+    }
+    
+    /**
+     * Answer every request still waiting on a match once the current transaction commits,
+     * for changes that publish no event such as the match completing
+     */
+    public void release(Long matchId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake(matchId);
+                }
+            });
+        } else {
+            wake(matchId);
+        }
+    }
+    
+    /**
+     * Wake every request waiting on the match once the change is visible to readers
+     */
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not wake waiters of match {}", event.getMatchId(), e);
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        wake(event.getMatchId());
+    }
+    
+    private void wake(Long matchId) {
+        Set<Runnable> parked = waiters.remove(matchId);
+        if (parked == null) {
+            return;
+        }
+        for (Runnable waiter : parked) {
+            try {
+                waiter.run();
+            } catch (RuntimeException e) {
+                log.debug("Could not answer a waiter on match {}", matchId, e);
+            }
+        }
+    }
+    
+    private void detach(Long matchId, Runnable waiter) {
+        waiters.computeIfPresent(matchId, (id, parked) -> {
+            parked.remove(waiter);
+            return parked.isEmpty() ? null : parked;
+        });
+    }
+    
+    private ResponseEntity<ScorecardDeltaDTO> changesSince(Long matchId, Long cursor) {
+        ScorecardDeltaDTO delta = liveScorecardService.getScorecardDelta(matchId, cursor);
+        return ResponseEntity.ok().eTag("\"" + delta.getVersion() + "\"").body(delta);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cricket.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-over totals of one innings held in parallel int arrays indexed by over number, the
+ * data behind worm and manhattan charts. Deliveries are added or taken away one at a time.
+ * Not thread-safe.
+ */
+final class OverSeries {
+    
+    private final int inningsNumber;
+    private final Long battingTeamId;
+    private int[] runs = new int[20];
+    private int[] wickets = new int[20];
+    private int[] legalBalls = new int[20];
+    private int[] deliveries = new int[20];
+    private int overs;
+    
+    OverSeries(int inningsNumber, Long battingTeamId) {
+        this.inningsNumber = inningsNumber;
+        this.battingTeamId = battingTeamId;
+    }
+    
+    /**
+     * Apply one delivery (sign = 1 to add, -1 to remove)
+     */
+    void add(int overNumber, int ballRuns, boolean wicket, boolean legal, int sign) {
+        if (overNumber >= runs.length) {
+            int capacity = Math.max(runs.length * 2, overNumber + 1);
+            runs = Arrays.copyOf(runs, capacity);
+            wickets = Arrays.copyOf(wickets, capacity);
+            legalBalls = Arrays.copyOf(legalBalls, capacity);
+            deliveries = Arrays.copyOf(deliveries, capacity);
+        }
+        
+        runs[overNumber] += sign * ballRuns;
+        wickets[overNumber] += sign * (wicket ? 1 : 0);
+        legalBalls[overNumber] += sign * (legal ? 1 : 0);
+        deliveries[overNumber] += sign;
+        
+        overs = Math.max(overs, overNumber + 1);
+        // An undo can empty the over in progress
+        while (overs > 0 && deliveries[overs - 1] == 0) {
+            overs--;
+        }
+    }
+    
+    Map<String, Object> toMap() {
+        int[] cumulativeRuns = new int[overs];
+        double[] runRate = new double[overs];
+        int total = 0;
+        int balls = 0;
+        for (int i = 0; i < overs; i++) {
+            total += runs[i];
+            balls += legalBalls[i];
+            cumulativeRuns[i] = total;
+            runRate[i] = balls > 0 ? Math.round(total * 600.0 / balls) / 100.0 : 0.0;
+        }
+        
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("inningsNumber", inningsNumber);
+        series.put("battingTeamId", battingTeamId);
+        series.put("overs", overs);
+        series.put("runsPerOver", Arrays.copyOf(runs, overs));
+        series.put("cumulativeRuns", cumulativeRuns);
+        series.put("wicketsPerOver", Arrays.copyOf(wickets, overs));
+        series.put("legalBallsPerOver", Arrays.copyOf(legalBalls, overs));
+        series.put("runRate", runRate);
+        return series;
+    }
+}
@@ -0,0 +1,306 @@
+package com.cricket.service;
+
+import com.cricket.dto.BallDTO;
+import com.cricket.dto.MatchEventDTO;
+import com.cricket.entity.Ball;
+import com.cricket.entity.Innings;
+import com.cricket.entity.Match;
+import com.cricket.entity.Player;
+import com.cricket.repository.BallRepository;
+import com.cricket.repository.InningsRepository;
+import com.cricket.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Every partnership of an innings, built in one pass over its balls in sequence order.
+ * Ledgers of matches in progress are kept in memory and extended by each committed ball;
+ * an undo drops the ledger so it is rebuilt on the next read.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PartnershipService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PartnershipService.class);
+    
+    @Autowired
+    private InningsRepository inningsRepository;
+    
+    @Autowired
+    private BallRepository ballRepository;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    private final ConcurrentMap<InningsKey, Ledger> ledgers = new ConcurrentHashMap<>();
+    
+    /**
+     * Partnerships of an innings in the order they were formed, the unbroken one last
+     */
+    public List<Map<String, Object>> getPartnerships(Long matchId, Integer inningsNumber) {
+        Innings innings = inningsRepository.findByMatchIdAndInningsNumber(matchId, inningsNumber)
+                .orElseThrow(() -> new RuntimeException("Innings not found"));
+        InningsKey key = new InningsKey(matchId, inningsNumber);
+        
+        if (innings.getMatch().getStatus() != Match.MatchStatus.IN_PROGRESS) {
+            // Finished innings take no more balls, so there is nothing to keep current
+            ledgers.remove(key);
+            Ledger ledger = new Ledger();
+            load(innings, ledger);
+            return render(ledger);
+        }
+        
+        return render(ledger(key, innings));
+    }
+    
+    /**
+     * Drop the ledgers of a match that has finished
+     */
+    public void evictMatch(Long matchId) {
+        ledgers.keySet().removeIf(key -> key.matchId().equals(matchId));
+    }
+    
+    @TransactionalEventListener
+    public void onMatchEvent(MatchEventDTO event) {
+        // Runs after the commit, so a failure here must not reach the writer that made it
+        try {
+            handleMatchEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply ball to partnerships of match {}, rebuilding them on next read", event.getMatchId(), e);
+            evictMatch(event.getMatchId());
+        }
+    }
+    
+    private void handleMatchEvent(MatchEventDTO event) {
+        InningsKey key = new InningsKey(event.getMatchId(), event.getInningsNumber());
+        if (event.getType() == MatchEventDTO.EventType.UNDO) {
+            ledgers.remove(key);
+            return;
+        }
+        
+        Ledger ledger = ledgers.get(key);
+        if (ledger == null) {
+            return;
+        }
+        
+        synchronized (ledger) {
+            if (!ledger.ready) {
+                ledger.pending.add(event);
+                return;
+            }
+            ledger.apply(Delivery.of(event.getSequence(), event.getBall()));
+        }
+    }
+    
+    private Ledger ledger(InningsKey key, Innings innings) {
+        Ledger ledger = ledgers.get(key);
+        if (ledger == null) {
+            Ledger created = new Ledger();
+            ledger = ledgers.putIfAbsent(key, created);
+            if (ledger == null) {
+                // Registered before reading so balls committed meanwhile are parked, not lost
+                try {
+                    load(innings, created);
+                } catch (RuntimeException e) {
+                    ledgers.remove(key, created);
+                    synchronized (created) {
+                        created.failed = true;
+                        created.notifyAll();
+                    }
+                    throw e;
+                }
+                synchronized (created) {
+                    for (MatchEventDTO event : created.pending) {
+                        created.apply(Delivery.of(event.getSequence(), event.getBall()));
+                    }
+                    created.pending.clear();
+                    created.ready = true;
+                    created.notifyAll();
+                }
+                return created;
+            }
+        }
+        
+        synchronized (ledger) {
+            while (!ledger.ready && !ledger.failed) {
+                try {
+                    ledger.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while loading partnerships for innings: " + innings.getId(), e);
+                }
+            }
+            if (ledger.failed) {
+                throw new RuntimeException("Partnerships could not be loaded for innings: " + innings.getId());
+            }
+        }
+        return ledger;
+    }
+    
+    private void load(Innings innings, Ledger ledger) {
+        List<Ball> balls = ballRepository.findJournalTail(innings.getId(), 0L, Long.MAX_VALUE);
+        for (Ball ball : balls) {
+            ledger.names.put(ball.getBatsman().getId(), ball.getBatsman().getName());
+        }
+        synchronized (ledger) {
+            for (Ball ball : balls) {
+                ledger.apply(Delivery.of(ball));
+            }
+        }
+    }
+    
+    private List<Map<String, Object>> render(Ledger ledger) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        synchronized (ledger) {
+            for (Partnership partnership : ledger.partnerships) {
+                rows.add(partnership.toMap(ledger.names));
+            }
+        }
+        
+        // Batters who came in after the ledger was loaded are named here, outside the lock
+        Set<Long> unknown = new HashSet<>();
+        for (Map<String, Object> row : rows) {
+            for (Map<String, Object> batter : batters(row)) {
+                if (batter.get("playerName") == null) {
+                    unknown.add((Long) batter.get("playerId"));
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            for (Player player : playerRepository.findAllById(unknown)) {
+                ledger.names.put(player.getId(), player.getName());
+            }
+            for (Map<String, Object> row : rows) {
+                for (Map<String, Object> batter : batters(row)) {
+                    batter.putIfAbsent("playerName", ledger.names.get((Long) batter.get("playerId")));
+                }
+            }
+        }
+        return rows;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> batters(Map<String, Object> row) {
+        return (List<Map<String, Object>>) row.get("batters");
+    }
+    
+    private record InningsKey(Long matchId, Integer inningsNumber) {}
+    
+    private record Delivery(long sequence, Long batsmanId, int runs, boolean wide, boolean noBall,
+                            boolean bye, boolean legBye, boolean wicket) {
+        
+        private static Delivery of(Ball ball) {
+            return new Delivery(ball.getSequenceNumber(), ball.getBatsman().getId(), ball.getRuns(),
+                    ball.getIsWide(), ball.getIsNoBall(), ball.getIsBye(), ball.getIsLegBye(), ball.getIsWicket());
+        }
+        
+        private static Delivery of(long sequence, BallDTO ball) {
+            return new Delivery(sequence, ball.getBatsmanId(), ball.getRuns(),
+                    ball.getIsWide(), ball.getIsNoBall(), ball.getIsBye(), ball.getIsLegBye(), ball.getIsWicket());
+        }
+    }
+    
+    private static final class Ledger {
+        private final List<Partnership> partnerships = new ArrayList<>();
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private final List<MatchEventDTO> pending = new ArrayList<>();
+        private long lastSequence;
+        private boolean ready;
+        private boolean failed;
+        
+        private void apply(Delivery delivery) {
+            // Balls read with the ledger may also arrive as events
+            if (delivery.sequence() <= lastSequence) {
+                return;
+            }
+            lastSequence = delivery.sequence();
+            
+            Partnership current = partnerships.isEmpty() ? null : partnerships.get(partnerships.size() - 1);
+            if (current == null || current.outBatterId != null) {
+                Partnership next = new Partnership(partnerships.size() + 1);
+                if (current != null) {
+                    // The batter who survived the wicket carries on into the next stand
+                    for (Long batterId : current.batters.keySet()) {
+                        if (!batterId.equals(current.outBatterId)) {
+                            next.batter(batterId);
+                        }
+                    }
+                }
+                partnerships.add(next);
+                current = next;
+            }
+            current.add(delivery);
+        }
+    }
+    
+    private static final class Partnership {
+        private final int wicket;
+        private final Map<Long, int[]> batters = new LinkedHashMap<>();
+        private int runs;
+        private int balls;
+        private int extras;
+        private Long outBatterId;
+        
+        private Partnership(int wicket) {
+            this.wicket = wicket;
+        }
+        
+        // Runs and balls faced by one batter within the stand
+        private int[] batter(Long batterId) {
+            return batters.computeIfAbsent(batterId, id -> new int[2]);
+        }
+        
+        private void add(Delivery delivery) {
+            int[] batter = batter(delivery.batsmanId());
+            boolean offTheBat = !delivery.wide() && !delivery.bye() && !delivery.legBye();
+            
+            runs += delivery.runs();
+            if (offTheBat) {
+                batter[0] += delivery.runs();
+            } else {
+                extras += delivery.runs();
+            }
+            if (!delivery.wide()) {
+                batter[1]++;
+            }
+            if (!delivery.wide() && !delivery.noBall()) {
+                balls++;
+            }
+            if (delivery.wicket()) {
+                outBatterId = delivery.batsmanId();
+            }
+        }
+        
+        private Map<String, Object> toMap(Map<Long, String> names) {
+            List<Map<String, Object>> batterRows = new ArrayList<>();
+            for (Map.Entry<Long, int[]> entry : batters.entrySet()) {
+                Map<String, Object> batter = new LinkedHashMap<>();
+                batter.put("playerId", entry.getKey());
+                batter.put("playerName", names.get(entry.getKey()));
+                batter.put("runs", entry.getValue()[0]);
+                batter.put("balls", entry.getValue()[1]);
+                batter.put("share", runs > 0 ? Math.round(entry.getValue()[0] * 1000.0 / runs) / 10.0 : 0.0);
+                batterRows.add(batter);
+            }
+            
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("wicket", wicket);
+            row.put("batters", batterRows);
+            row.put("runs", runs);
+            row.put("balls", balls);
+            row.put("extras", extras);
+            row.put("runRate", balls > 0 ? Math.round(runs * 600.0 / balls) / 100.0 : 0.0);
+            row.put("unbroken", outBatterId == null);
+            row.put("outBatterId", outBatterId);
+            return row;
+        }
+    }
+}
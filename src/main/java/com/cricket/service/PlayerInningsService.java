@@ -0,0 +1,84 @@
+package com.cricket.service;
+
+import com.cricket.entity.Ball;
+import com.cricket.entity.Innings;
+import com.cricket.entity.Player;
+import com.cricket.entity.PlayerInnings;
+import com.cricket.repository.PlayerInningsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the player_innings read model from the scoring path. Callers hold the innings
+ * row lock, so rows for an innings are never created concurrently.
+ */
+@Service
+@Transactional
+public class PlayerInningsService {
+    
+    @Autowired
+    private PlayerInningsRepository playerInningsRepository;
+    
+    /**
+     * Apply deliveries to the batter and bowler rows of an innings (sign = 1 to add, -1 to remove)
+     */
+    public void apply(Innings innings, List<Ball> balls, int sign) {
+        Set<Long> playerIds = new HashSet<>();
+        for (Ball ball : balls) {
+            playerIds.add(ball.getBatsman().getId());
+            playerIds.add(ball.getBowler().getId());
+        }
+        
+        Map<Long, PlayerInnings> rows = new HashMap<>();
+        playerInningsRepository.findByInningsIdAndPlayerIdIn(innings.getId(), playerIds)
+                .forEach(row -> rows.put(row.getPlayer().getId(), row));
+        
+        List<PlayerInnings> created = new ArrayList<>();
+        for (Ball ball : balls) {
+            boolean legal = !ball.getIsWide() && !ball.getIsNoBall();
+            
+            PlayerInnings batter = row(rows, created, innings, ball.getBatsman());
+            batter.setRuns(batter.getRuns() + sign * ball.getRuns());
+            if (legal) {
+                batter.setBallsFaced(batter.getBallsFaced() + sign);
+            }
+            if (ball.getRuns() == 4) batter.setFours(batter.getFours() + sign);
+            if (ball.getRuns() == 6) batter.setSixes(batter.getSixes() + sign);
+            if (ball.getIsWicket()) {
+                // A batter is dismissed at most once an innings, so undoing the wicket clears it
+                batter.setIsOut(sign > 0);
+                batter.setDismissal(sign > 0 ? ball.getWicketType() : null);
+            }
+            
+            PlayerInnings bowler = row(rows, created, innings, ball.getBowler());
+            bowler.setRunsConceded(bowler.getRunsConceded() + sign * ball.getRuns());
+            if (legal) {
+                bowler.setLegalBallsBowled(bowler.getLegalBallsBowled() + sign);
+            }
+            if (ball.getIsWicket()) {
+                bowler.setWickets(bowler.getWickets() + sign);
+            }
+        }
+        
+        // Existing rows are managed and flushed with the transaction
+        if (!created.isEmpty()) {
+            playerInningsRepository.saveAll(created);
+        }
+    }
+    
+    private PlayerInnings row(Map<Long, PlayerInnings> rows, List<PlayerInnings> created, Innings innings, Player player) {
+        return rows.computeIfAbsent(player.getId(), id -> {
+            PlayerInnings row = new PlayerInnings(innings, player);
+            created.add(row);
+            return row;
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package com.cricket.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic treap of (score, playerId), highest score first and lower player id first
+ * on ties. Insert, remove, rank and select are all O(log n) expected. Not thread-safe.
+ */
+final class RankedScores {
+    
+    private Node root;
+    
+    int size() {
+        return size(root);
+    }
+    
+    void add(long playerId, int score) {
+        Node[] parts = split(root, score, playerId);
+        root = merge(merge(parts[0], new Node(playerId, score)), parts[1]);
+    }
+    
+    void remove(long playerId, int score) {
+        Node[] parts = split(root, score, playerId);
+        // The first node at or after the key is the entry itself
+        Node[] rest = splitFirst(parts[1], 1);
+        if (rest[0] != null && rest[0].playerId == playerId) {
+            root = merge(parts[0], rest[1]);
+        } else {
+            root = merge(parts[0], merge(rest[0], rest[1]));
+        }
+    }
+    
+    /**
+     * Zero-based position of an entry in the ranking
+     */
+    int indexOf(long playerId, int score) {
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            if (precedes(node.score, node.playerId, score, playerId)) {
+                index += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Player id at a zero-based position
+     */
+    long playerAt(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.playerId;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException("No entry at " + index);
+    }
+    
+    private static boolean precedes(int score, long playerId, int otherScore, long otherPlayerId) {
+        return score > otherScore || (score == otherScore && playerId < otherPlayerId);
+    }
+    
+    // Entries ranked before the key go left, the key and everything after it go right
+    private static Node[] split(Node node, int score, long playerId) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (precedes(node.score, node.playerId, score, playerId)) {
+            Node[] parts = split(node.right, score, playerId);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, playerId);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+    
+    private static Node[] splitFirst(Node node, int count) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (size(node.left) >= count) {
+            Node[] parts = splitFirst(node.left, count);
+            node.left = parts[1];
+            node.update();
+            return new Node[] {parts[0], node};
+        }
+        Node[] parts = splitFirst(node.right, count - size(node.left) - 1);
+        node.right = parts[0];
+        node.update();
+        return new Node[] {node, parts[1]};
+    }
+    
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+    
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+    
+    private static final class Node {
+        private final long playerId;
+        private final int score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+        
+        private Node(long playerId, int score) {
+            this.playerId = playerId;
+            this.score = score;
+        }
+        
+        private void update() {
+            size = 1 + RankedScores.size(left) + RankedScores.size(right);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.cricket.service;
 import com.cricket.entity.*;
 import com.cricket.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,11 +24,11 @@ public class ScoringService {
     @Autowired
     private MatchRepository matchRepository;
     
-    @Autowired
-    private MatchScorecardRepository scorecardRepository;
+    private final int oversPerInnings;
     
-    @Autowired
-    private StatisticsService statisticsService;
+    public ScoringService(@Value("${cricket.standings.overs-per-innings:20}") int oversPerInnings) {
+        this.oversPerInnings = oversPerInnings;
+    }
     
     /**
      * Calculate Current Run Rate (CRR) for an innings
@@ -162,35 +163,22 @@ public class ScoringService {
     }
     
     /**
-     * Calculate Net Run Rate (NRR) for a team
+     * Calculate Net Run Rate (NRR) for a team over its completed matches in a league
      */
     public double calculateNetRunRate(Long teamId, Long leagueId) {
-        List<Innings> battingInnings = inningsRepository.findByBattingTeamId(teamId);
-        List<Innings> bowlingInnings = inningsRepository.findByBowlingTeamId(teamId);
-        
-        int totalRunsScored = 0;
-        double totalOversScored = 0.0;
-        int totalRunsConceded = 0;
-        double totalOversBowled = 0.0;
-        
-        for (Innings innings : battingInnings) {
-            if (innings.getMatch().getLeague().getId().equals(leagueId)) {
-                totalRunsScored += innings.getTotalRuns();
-                totalOversScored += innings.getOvers();
-            }
-        }
-        
-        for (Innings innings : bowlingInnings) {
-            if (innings.getMatch().getLeague().getId().equals(leagueId)) {
-                totalRunsConceded += innings.getTotalRuns();
-                totalOversBowled += innings.getOvers();
-            }
+        return calculateNetRunRates(leagueId).getOrDefault(teamId, 0.0);
+    }
+    
+    /**
+     * Net Run Rate of every team in a league, aggregated in a single query; the points table
+     * reads the same figures
+     */
+    public Map<Long, Double> calculateNetRunRates(Long leagueId) {
+        Map<Long, Double> netRunRates = new HashMap<>();
+        for (TeamRunRateTotals totals : inningsRepository.findRunRateTotalsByLeagueId(leagueId, oversPerInnings * 6)) {
+            netRunRates.put(totals.getTeamId(), totals.netRunRate());
         }
-        
-        double runRateScored = totalOversScored > 0 ? totalRunsScored / totalOversScored : 0.0;
-        double runRateConceded = totalOversBowled > 0 ? totalRunsConceded / totalOversBowled : 0.0;
-        
-        return runRateScored - runRateConceded;
+        return netRunRates;
     }
     
     /**
@@ -230,43 +218,4 @@ public class ScoringService {
         
         return statistics;
     }
-    
-    /**
-     * Update real-time statistics after each ball
-     */
-    @Transactional
-    public void updateRealTimeStatistics(Long matchId) {
-        // Update match scorecard
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
-        
-        List<Innings> innings = inningsRepository.findByMatchIdOrderByInningsNumber(matchId);
-        
-        MatchScorecard scorecard = match.getScorecard();
-        if (scorecard == null) {
-            scorecard = new MatchScorecard(match);
-            match.setScorecard(scorecard);
-        }
-        
-        for (Innings inning : innings) {
-            if (inning.getBattingTeam().getId().equals(match.getTeam1().getId())) {
-                scorecard.setTeam1Runs(inning.getTotalRuns());
-                scorecard.setTeam1Wickets(inning.getWickets());
-                scorecard.setTeam1Overs(inning.getOvers());
-            } else if (inning.getBattingTeam().getId().equals(match.getTeam2().getId())) {
-                scorecard.setTeam2Runs(inning.getTotalRuns());
-                scorecard.setTeam2Wickets(inning.getWickets());
-                scorecard.setTeam2Overs(inning.getOvers());
-            }
-        }
-        
-        scorecardRepository.save(scorecard);
-        
-        // Calculate and update man of the match
-        Long manOfTheMatchId = statisticsService.calculateManOfTheMatch(matchId);
-        if (manOfTheMatchId != null) {
-            scorecard.setManOfTheMatchId(manOfTheMatchId);
-            scorecardRepository.save(scorecard);
-        }
-    }
 }
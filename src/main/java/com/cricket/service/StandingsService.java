@@ -0,0 +1,425 @@
+package com.cricket.service;
+
+import com.cricket.entity.Match;
+import com.cricket.entity.MatchScorecard;
+import com.cricket.entity.Team;
+import com.cricket.repository.InningsRepository;
+import com.cricket.repository.MatchRunRateTotals;
+import com.cricket.repository.MatchScorecardRepository;
+import com.cricket.repository.TeamRepository;
+import com.cricket.repository.TeamRunRateTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * League points tables built from completed match scorecards. A table is built in one pass
+ * the first time it is read and then kept up to date by applying each result as its match
+ * completes or is corrected, replacing whatever that match contributed before. Each result
+ * carries its teams' runs and balls, computed as in ScoringService's league query, so the
+ * table keeps running net run rate totals without re-reading the league.
+ */
+@Service
+public class StandingsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(StandingsService.class);
+    
+    @Autowired
+    private MatchScorecardRepository scorecardRepository;
+    
+    @Autowired
+    private TeamRepository teamRepository;
+    
+    @Autowired
+    private InningsRepository inningsRepository;
+    
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    
+    private final ConcurrentMap<Long, LeagueTable> tables = new ConcurrentHashMap<>();
+    
+    // Bumped before every result is applied, so a build that overlapped one is not cached
+    private final AtomicLong changeCount = new AtomicLong();
+    
+    private final int pointsForWin;
+    
+    private final int pointsForTie;
+    
+    private final int pointsForNoResult;
+    
+    private final int oversPerInnings;
+    
+    private final List<Tiebreaker> tiebreakers;
+    
+    public StandingsService(PlatformTransactionManager transactionManager,
+                            @Value("${cricket.standings.points-for-win:2}") int pointsForWin,
+                            @Value("${cricket.standings.points-for-tie:1}") int pointsForTie,
+                            @Value("${cricket.standings.points-for-no-result:1}") int pointsForNoResult,
+                            @Value("${cricket.standings.overs-per-innings:20}") int oversPerInnings,
+                            @Value("${cricket.standings.tiebreakers:WINS,NET_RUN_RATE,HEAD_TO_HEAD}") List<Tiebreaker> tiebreakers) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.pointsForWin = pointsForWin;
+        this.pointsForTie = pointsForTie;
+        this.pointsForNoResult = pointsForNoResult;
+        this.oversPerInnings = oversPerInnings;
+        this.tiebreakers = List.copyOf(tiebreakers);
+    }
+    
+    /**
+     * Points table of a league, best placed team first
+     */
+    public List<Map<String, Object>> getStandings(Long leagueId) {
+        LeagueTable table = tables.get(leagueId);
+        if (table == null) {
+            long before = changeCount.get();
+            table = load(leagueId);
+            if (changeCount.get() == before) {
+                LeagueTable existing = tables.putIfAbsent(leagueId, table);
+                if (existing != null) {
+                    table = existing;
+                }
+            }
+        }
+        return table.snapshot();
+    }
+    
+    /**
+     * Fold a completed or corrected match into its league's table once the transaction
+     * commits. The result is read from the scorecard now, while it is still attached.
+     */
+    public void recordResult(MatchScorecard scorecard) {
+        Match match = scorecard.getMatch();
+        Long leagueId = match.getLeague().getId();
+        MatchResult result = toResult(scorecard,
+                inningsRepository.findMatchRunRateTotalsByMatchId(match.getId(), oversPerInnings * 6));
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // The result is already committed; a table that cannot take it is rebuilt on next read
+                    try {
+                        apply(leagueId, result);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not apply result to standings of league {}", leagueId, e);
+                        changeCount.incrementAndGet();
+                        tables.remove(leagueId);
+                    }
+                }
+            });
+        } else {
+            apply(leagueId, result);
+        }
+    }
+    
+    /**
+     * Drop a league's table once the current transaction commits, for changes that cannot be
+     * applied as a single result such as deleted matches or teams
+     */
+    public void evict(Long leagueId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changeCount.incrementAndGet();
+                    tables.remove(leagueId);
+                }
+            });
+        } else {
+            changeCount.incrementAndGet();
+            tables.remove(leagueId);
+        }
+    }
+    
+    private void apply(Long leagueId, MatchResult result) {
+        changeCount.incrementAndGet();
+        LeagueTable table = tables.get(leagueId);
+        if (table != null && !table.apply(result)) {
+            // A team the table has not seen; rebuild on next read
+            tables.remove(leagueId, table);
+        }
+    }
+    
+    private LeagueTable load(Long leagueId) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            LeagueTable table = new LeagueTable();
+            for (Team team : teamRepository.findByLeagueId(leagueId)) {
+                table.rows.put(team.getId(), new TeamRow(team.getId(), team.getName()));
+            }
+            Map<Long, List<MatchRunRateTotals>> runRates = new HashMap<>();
+            for (MatchRunRateTotals totals : inningsRepository.findMatchRunRateTotalsByLeagueId(leagueId,
+                    oversPerInnings * 6)) {
+                runRates.computeIfAbsent(totals.getMatchId(), id -> new ArrayList<>()).add(totals);
+            }
+            for (MatchScorecard scorecard : scorecardRepository.findCompletedByLeagueId(leagueId)) {
+                table.add(toResult(scorecard, runRates.getOrDefault(scorecard.getMatch().getId(), List.of())));
+            }
+            table.rank();
+            return table;
+        });
+    }
+    
+    private MatchResult toResult(MatchScorecard scorecard, List<? extends TeamRunRateTotals> runRates) {
+        Match match = scorecard.getMatch();
+        Long team1Id = match.getTeam1().getId();
+        Long team2Id = match.getTeam2().getId();
+        
+        int team1Runs = valueOf(scorecard.getTeam1Runs());
+        int team2Runs = valueOf(scorecard.getTeam2Runs());
+        double team1Overs = valueOf(scorecard.getTeam1Overs());
+        double team2Overs = valueOf(scorecard.getTeam2Overs());
+        boolean bothBatted = team1Overs > 0 && team2Overs > 0;
+        
+        Long winnerId = scorecard.getWinningTeamId();
+        if (winnerId == null && bothBatted && team1Runs != team2Runs) {
+            winnerId = team1Runs > team2Runs ? team1Id : team2Id;
+        }
+        // Must agree with the run rate query, which leaves out the same abandoned matches
+        boolean noResult = winnerId == null && !bothBatted;
+        
+        return new MatchResult(match.getId(), match.getStateVersion(), team1Id, team2Id, winnerId, noResult,
+                runRate(runRates, team1Id), runRate(runRates, team2Id));
+    }
+    
+    private static RunRate runRate(List<? extends TeamRunRateTotals> runRates, Long teamId) {
+        for (TeamRunRateTotals totals : runRates) {
+            if (teamId.equals(totals.getTeamId())) {
+                return new RunRate(totals.getRunsScored(), totals.getBallsFaced(), totals.getRunsConceded(),
+                        totals.getBallsBowled());
+            }
+        }
+        return new RunRate(0, 0, 0, 0);
+    }
+    
+    // Balls as cricket overs notation, e.g. 117 balls is 19.3
+    private static double overs(long balls) {
+        return balls / 6 + (balls % 6) / 10.0;
+    }
+    
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+    
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+    
+    public enum Tiebreaker {
+        WINS, NET_RUN_RATE, HEAD_TO_HEAD, RUNS_SCORED
+    }
+    
+    private record MatchResult(Long matchId, Long version, Long team1Id, Long team2Id, Long winnerId, boolean noResult,
+                               RunRate team1RunRate, RunRate team2RunRate) {
+        
+        private boolean tied() {
+            return winnerId == null && !noResult;
+        }
+    }
+    
+    // One team's share of a match towards net run rate
+    private record RunRate(long runsScored, long ballsFaced, long runsConceded, long ballsBowled) {
+    }
+    
+    private static final class TeamRow {
+        private final Long teamId;
+        private final String teamName;
+        private int played;
+        private int won;
+        private int lost;
+        private int tied;
+        private int noResults;
+        private int points;
+        private long runsScored;
+        private long ballsFaced;
+        private long runsConceded;
+        private long ballsBowled;
+        
+        private TeamRow(Long teamId, String teamName) {
+            this.teamId = teamId;
+            this.teamName = teamName;
+        }
+        
+        private void runRate(RunRate runRate, int sign) {
+            runsScored += sign * runRate.runsScored();
+            ballsFaced += sign * runRate.ballsFaced();
+            runsConceded += sign * runRate.runsConceded();
+            ballsBowled += sign * runRate.ballsBowled();
+        }
+        
+        private double netRunRate() {
+            return TeamRunRateTotals.netRunRate(runsScored, ballsFaced, runsConceded, ballsBowled);
+        }
+    }
+    
+    private final class LeagueTable {
+        private final Map<Long, TeamRow> rows = new LinkedHashMap<>();
+        private final Map<Long, MatchResult> results = new HashMap<>();
+        private List<Map<String, Object>> standings = List.of();
+        
+        private synchronized List<Map<String, Object>> snapshot() {
+            List<Map<String, Object>> copy = new ArrayList<>(standings.size());
+            for (Map<String, Object> row : standings) {
+                copy.add(new LinkedHashMap<>(row));
+            }
+            return copy;
+        }
+        
+        /**
+         * Replace a match's contribution with its latest result; false if a team is unknown
+         */
+        private synchronized boolean apply(MatchResult result) {
+            if (!rows.containsKey(result.team1Id()) || !rows.containsKey(result.team2Id())) {
+                return false;
+            }
+            MatchResult previous = results.get(result.matchId());
+            if (previous == null || previous.version() < result.version()) {
+                if (previous != null) {
+                    contribute(previous, -1);
+                }
+                add(result);
+            }
+            rank();
+            return true;
+        }
+        
+        private void add(MatchResult result) {
+            if (!rows.containsKey(result.team1Id()) || !rows.containsKey(result.team2Id())) {
+                return;
+            }
+            results.put(result.matchId(), result);
+            contribute(result, 1);
+        }
+        
+        private void contribute(MatchResult result, int sign) {
+            contribute(rows.get(result.team1Id()), result, result.team1RunRate(), sign);
+            contribute(rows.get(result.team2Id()), result, result.team2RunRate(), sign);
+        }
+        
+        private void contribute(TeamRow row, MatchResult result, RunRate runRate, int sign) {
+            row.played += sign;
+            if (result.noResult()) {
+                row.noResults += sign;
+                row.points += sign * pointsForNoResult;
+                return;
+            }
+            
+            if (result.tied()) {
+                row.tied += sign;
+            } else if (result.winnerId().equals(row.teamId)) {
+                row.won += sign;
+            } else {
+                row.lost += sign;
+            }
+            row.points += sign * points(result, row.teamId);
+            // Abandoned matches are left out of net run rate, as in the league query
+            row.runRate(runRate, sign);
+        }
+        
+        private int points(MatchResult result, Long teamId) {
+            if (result.noResult()) {
+                return pointsForNoResult;
+            }
+            if (result.tied()) {
+                return pointsForTie;
+            }
+            return result.winnerId().equals(teamId) ? pointsForWin : 0;
+        }
+        
+        private void rank() {
+            List<TeamRow> ordered = new ArrayList<>(rows.values());
+            ordered.sort(Comparator.comparingInt((TeamRow row) -> row.points).reversed()
+                    .thenComparing(row -> row.teamName));
+            
+            List<TeamRow> ranked = new ArrayList<>(ordered.size());
+            forEachGroup(ordered, row -> row.points, group -> breakTies(group, 0, ranked));
+            
+            List<Map<String, Object>> table = new ArrayList<>(ranked.size());
+            for (TeamRow row : ranked) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("position", table.size() + 1);
+                entry.put("teamId", row.teamId);
+                entry.put("teamName", row.teamName);
+                entry.put("matchesPlayed", row.played);
+                entry.put("matchesWon", row.won);
+                entry.put("matchesLost", row.lost);
+                entry.put("matchesTied", row.tied);
+                entry.put("noResults", row.noResults);
+                entry.put("points", row.points);
+                entry.put("netRunRate", Math.round(row.netRunRate() * 1000.0) / 1000.0);
+                entry.put("runsScored", row.runsScored);
+                entry.put("oversFaced", overs(row.ballsFaced));
+                entry.put("runsConceded", row.runsConceded);
+                entry.put("oversBowled", overs(row.ballsBowled));
+                table.add(entry);
+            }
+            standings = table;
+        }
+        
+        // Teams level so far are ordered by the next tiebreaker, then by name once none are left
+        private void breakTies(List<TeamRow> group, int level, List<TeamRow> ranked) {
+            if (group.size() == 1 || level == tiebreakers.size()) {
+                ranked.addAll(group);
+                return;
+            }
+            
+            Map<Long, Double> keys = new HashMap<>();
+            for (TeamRow row : group) {
+                keys.put(row.teamId, key(tiebreakers.get(level), row, group));
+            }
+            
+            List<TeamRow> ordered = new ArrayList<>(group);
+            ordered.sort(Comparator.comparingDouble((TeamRow row) -> keys.get(row.teamId)).reversed()
+                    .thenComparing(row -> row.teamName));
+            forEachGroup(ordered, row -> keys.get(row.teamId), tied -> breakTies(tied, level + 1, ranked));
+        }
+        
+        private double key(Tiebreaker tiebreaker, TeamRow row, List<TeamRow> group) {
+            switch (tiebreaker) {
+                case WINS:
+                    return row.won;
+                case NET_RUN_RATE:
+                    return row.netRunRate();
+                case RUNS_SCORED:
+                    return row.runsScored;
+                case HEAD_TO_HEAD:
+                default:
+                    // Points taken only from matches between the teams that are level
+                    Set<Long> level = new HashSet<>();
+                    for (TeamRow other : group) {
+                        level.add(other.teamId);
+                    }
+                    int points = 0;
+                    for (MatchResult result : results.values()) {
+                        boolean involved = result.team1Id().equals(row.teamId) || result.team2Id().equals(row.teamId);
+                        if (involved && level.contains(result.team1Id()) && level.contains(result.team2Id())) {
+                            points += points(result, row.teamId);
+                        }
+                    }
+                    return points;
+            }
+        }
+        
+        private <K> void forEachGroup(List<TeamRow> ordered, Function<TeamRow, K> key, Consumer<List<TeamRow>> action) {
+            int start = 0;
+            for (int i = 1; i <= ordered.size(); i++) {
+                if (i == ordered.size() || !Objects.equals(key.apply(ordered.get(i)), key.apply(ordered.get(start)))) {
+                    action.accept(ordered.subList(start, i));
+                    start = i;
+                }
+            }
+        }
+    }
+}
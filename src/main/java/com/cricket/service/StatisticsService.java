@@ -28,8 +28,17 @@ public class StatisticsService {
     @Autowired
     private TeamRepository teamRepository;
     
+    @Autowired
+    private PlayerInningsRepository playerInningsRepository;
+    
+    @Autowired
+    private StandingsService standingsService;
+    
+    @Autowired
+    private LeagueArchiveService leagueArchiveService;
+    
     public Map<String, Object> getPlayerBattingStats(Long playerId) {
-        List<Ball> balls = ballRepository.findByBatsmanId(playerId);
+        List<PlayerInnings> innings = getPlayerInnings(playerId);
         
         int totalRuns = 0;
         int ballsFaced = 0;
@@ -38,41 +47,22 @@ public class StatisticsService {
         int centuries = 0;
         int halfCenturies = 0;
         int highestScore = 0;
-        int currentInningsRuns = 0;
-        Long currentInningsId = null;
         
-        for (Ball ball : balls) {
-            if (!ball.getIsWide() && !ball.getIsNoBall()) {
-                ballsFaced++;
-            }
-            
-            totalRuns += ball.getRuns();
-            currentInningsRuns += ball.getRuns();
+        // Figures are already grouped by innings, so milestones are read per row
+        for (PlayerInnings inning : innings) {
+            totalRuns += inning.getRuns();
+            ballsFaced += inning.getBallsFaced();
+            fours += inning.getFours();
+            sixes += inning.getSixes();
             
-            if (ball.getRuns() == 4) fours++;
-            if (ball.getRuns() == 6) sixes++;
+            if (inning.getRuns() >= 100) centuries++;
+            else if (inning.getRuns() >= 50) halfCenturies++;
             
-            if (currentInningsId == null || !currentInningsId.equals(ball.getInnings().getId())) {
-                if (currentInningsRuns >= 100) centuries++;
-                else if (currentInningsRuns >= 50) halfCenturies++;
-                
-                if (currentInningsRuns > highestScore) {
-                    highestScore = currentInningsRuns;
-                }
-                
-                currentInningsRuns = 0;
-                currentInningsId = ball.getInnings().getId();
+            if (inning.getRuns() > highestScore) {
+                highestScore = inning.getRuns();
             }
         }
         
-        // Check last innings
-        if (currentInningsRuns >= 100) centuries++;
-        else if (currentInningsRuns >= 50) halfCenturies++;
-        
-        if (currentInningsRuns > highestScore) {
-            highestScore = currentInningsRuns;
-        }
-        
         double average = ballsFaced > 0 ? (double) totalRuns / ballsFaced : 0.0;
         double strikeRate = ballsFaced > 0 ? (double) totalRuns / ballsFaced * 100 : 0.0;
         
@@ -91,37 +81,21 @@ public class StatisticsService {
     }
     
     public Map<String, Object> getPlayerBowlingStats(Long playerId) {
-        List<Ball> balls = ballRepository.findByBowlerId(playerId);
+        List<PlayerInnings> innings = getPlayerInnings(playerId);
         
         int totalRuns = 0;
         int ballsBowled = 0;
         int wickets = 0;
         int fiveWicketHauls = 0;
-        int currentInningsWickets = 0;
-        Long currentInningsId = null;
         
-        for (Ball ball : balls) {
-            if (!ball.getIsWide() && !ball.getIsNoBall()) {
-                ballsBowled++;
-            }
+        for (PlayerInnings inning : innings) {
+            totalRuns += inning.getRunsConceded();
+            ballsBowled += inning.getLegalBallsBowled();
+            wickets += inning.getWickets();
             
-            totalRuns += ball.getRuns();
-            
-            if (ball.getIsWicket()) {
-                wickets++;
-                currentInningsWickets++;
-            }
-            
-            if (currentInningsId == null || !currentInningsId.equals(ball.getInnings().getId())) {
-                if (currentInningsWickets >= 5) fiveWicketHauls++;
-                currentInningsWickets = 0;
-                currentInningsId = ball.getInnings().getId();
-            }
+            if (inning.getWickets() >= 5) fiveWicketHauls++;
         }
         
-        // Check last innings
-        if (currentInningsWickets >= 5) fiveWicketHauls++;
-        
         double overs = ballsBowled / 6.0;
         double economy = overs > 0 ? totalRuns / overs : 0.0;
         double average = wickets > 0 ? (double) totalRuns / wickets : 0.0;
@@ -138,108 +112,143 @@ public class StatisticsService {
         return stats;
     }
     
+    /**
+     * Batting figures for every player in a league, most runs first, from one aggregate query
+     */
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getBattingLeaderboard(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        return players.stream()
-                .map(player -> {
-                    Map<String, Object> playerStats = getPlayerBattingStats(player.getId());
-                    playerStats.put("playerId", player.getId());
-                    playerStats.put("playerName", player.getName());
-                    playerStats.put("teamName", player.getTeam().getName());
-                    return playerStats;
-                })
-                .sorted((a, b) -> Integer.compare((Integer) b.get("totalRuns"), (Integer) a.get("totalRuns")))
+        List<PlayerBattingTotals> archived = leagueArchiveService.getBattingTotals(leagueId);
+        return (archived != null ? archived : playerInningsRepository.findBattingTotalsByLeagueId(leagueId)).stream()
+                .map(this::toBattingStats)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Bowling figures for every player in a league, most wickets first, from one aggregate query
+     */
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getBowlingLeaderboard(Long leagueId) {
-        List<Player> players = playerRepository.findByLeagueId(leagueId);
-        
-        return players.stream()
-                .map(player -> {
-                    Map<String, Object> playerStats = getPlayerBowlingStats(player.getId());
-                    playerStats.put("playerId", player.getId());
-                    playerStats.put("playerName", player.getName());
-                    playerStats.put("teamName", player.getTeam().getName());
-                    return playerStats;
-                })
-                .sorted((a, b) -> Integer.compare((Integer) b.get("wickets"), (Integer) a.get("wickets")))
+        List<PlayerBowlingTotals> archived = leagueArchiveService.getBowlingTotals(leagueId);
+        return (archived != null ? archived : playerInningsRepository.findBowlingTotalsByLeagueId(leagueId)).stream()
+                .map(this::toBowlingStats)
                 .collect(Collectors.toList());
     }
     
-    public Map<String, Object> getTeamStats(Long teamId) {
-        List<Innings> innings = inningsRepository.findByBattingTeamId(teamId);
+    // Archived leagues are read from their ball files, the rest from player_innings
+    private List<PlayerInnings> getPlayerInnings(Long playerId) {
+        Set<Long> archivedLeagueIds = leagueArchiveService.getArchivedLeagueIds();
+        if (archivedLeagueIds.isEmpty()) {
+            return playerInningsRepository.findByPlayerId(playerId);
+        }
+        List<PlayerInnings> innings = new ArrayList<>(
+                playerInningsRepository.findByPlayerIdExcludingLeagues(playerId, archivedLeagueIds));
+        innings.addAll(leagueArchiveService.getPlayerInnings(playerId));
+        return innings;
+    }
+    
+    private Map<String, Object> toBattingStats(PlayerBattingTotals totals) {
+        int totalRuns = totals.getTotalRuns().intValue();
+        int ballsFaced = totals.getBallsFaced().intValue();
         
-        int totalRuns = 0;
-        int totalWickets = 0;
-        double totalOvers = 0.0;
+        double average = ballsFaced > 0 ? (double) totalRuns / ballsFaced : 0.0;
+        double strikeRate = ballsFaced > 0 ? (double) totalRuns / ballsFaced * 100 : 0.0;
         
-        for (Innings inning : innings) {
-            totalRuns += inning.getTotalRuns();
-            totalWickets += inning.getWickets();
-            totalOvers += inning.getOvers();
-        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("playerId", totals.getPlayerId());
+        stats.put("playerName", totals.getPlayerName());
+        stats.put("teamName", totals.getTeamName());
+        stats.put("totalRuns", totalRuns);
+        stats.put("ballsFaced", ballsFaced);
+        stats.put("average", Math.round(average * 100.0) / 100.0);
+        stats.put("strikeRate", Math.round(strikeRate * 100.0) / 100.0);
+        stats.put("fours", totals.getFours().intValue());
+        stats.put("sixes", totals.getSixes().intValue());
+        stats.put("centuries", totals.getCenturies().intValue());
+        stats.put("halfCenturies", totals.getHalfCenturies().intValue());
+        stats.put("highestScore", totals.getHighestScore().intValue());
+        
+        return stats;
+    }
+    
+    private Map<String, Object> toBowlingStats(PlayerBowlingTotals totals) {
+        int totalRuns = totals.getRunsConceded().intValue();
+        int ballsBowled = totals.getBallsBowled().intValue();
+        int wickets = totals.getWickets().intValue();
+        
+        double overs = ballsBowled / 6.0;
+        double economy = overs > 0 ? totalRuns / overs : 0.0;
+        double average = wickets > 0 ? (double) totalRuns / wickets : 0.0;
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("playerId", totals.getPlayerId());
+        stats.put("playerName", totals.getPlayerName());
+        stats.put("teamName", totals.getTeamName());
+        stats.put("totalRuns", totalRuns);
+        stats.put("ballsBowled", ballsBowled);
+        stats.put("overs", Math.round(overs * 100.0) / 100.0);
+        stats.put("wickets", wickets);
+        stats.put("economy", Math.round(economy * 100.0) / 100.0);
+        stats.put("average", Math.round(average * 100.0) / 100.0);
+        stats.put("fiveWicketHauls", totals.getFiveWicketHauls().intValue());
+        
+        return stats;
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTeamStats(Long teamId) {
+        TeamTotals totals = inningsRepository.findTeamTotals(teamId)
+                .orElseThrow(() -> new RuntimeException("Team not found with id: " + teamId));
+        return toTeamStats(totals);
+    }
+    
+    /**
+     * Batting and bowling figures for every team in a league from one aggregate query
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLeagueTeamStats(Long leagueId) {
+        return inningsRepository.findTeamTotalsByLeagueId(leagueId).stream()
+                .map(this::toTeamStats)
+                .collect(Collectors.toList());
+    }
+    
+    private Map<String, Object> toTeamStats(TeamTotals totals) {
+        int totalRuns = totals.getRunsScored().intValue();
+        int totalWickets = totals.getWicketsLost().intValue();
+        double totalOvers = totals.getBallsFaced() / 6.0;
+        int runsConceded = totals.getRunsConceded().intValue();
+        double oversBowled = totals.getBallsBowled() / 6.0;
         
         double average = totalWickets > 0 ? (double) totalRuns / totalWickets : 0.0;
         double runRate = totalOvers > 0 ? totalRuns / totalOvers : 0.0;
+        double economy = oversBowled > 0 ? runsConceded / oversBowled : 0.0;
         
         Map<String, Object> stats = new HashMap<>();
+        stats.put("teamId", totals.getTeamId());
+        stats.put("teamName", totals.getTeamName());
         stats.put("totalRuns", totalRuns);
         stats.put("totalWickets", totalWickets);
         stats.put("totalOvers", Math.round(totalOvers * 100.0) / 100.0);
         stats.put("average", Math.round(average * 100.0) / 100.0);
         stats.put("runRate", Math.round(runRate * 100.0) / 100.0);
+        stats.put("runsConceded", runsConceded);
+        stats.put("wicketsTaken", totals.getWicketsTaken().intValue());
+        stats.put("oversBowled", Math.round(oversBowled * 100.0) / 100.0);
+        stats.put("economy", Math.round(economy * 100.0) / 100.0);
         
         return stats;
     }
     
     public List<Map<String, Object>> getLeagueStandings(Long leagueId) {
-        List<Team> teams = teamRepository.findByLeagueId(leagueId);
-        
-        return teams.stream()
-                .map(team -> {
-                    Map<String, Object> teamStats = getTeamStats(team.getId());
-                    teamStats.put("teamId", team.getId());
-                    teamStats.put("teamName", team.getName());
-                    teamStats.put("points", 0); // This would need to be calculated based on match results
-                    teamStats.put("matchesPlayed", 0); // This would need to be calculated
-                    teamStats.put("matchesWon", 0); // This would need to be calculated
-                    teamStats.put("matchesLost", 0); // This would need to be calculated
-                    teamStats.put("netRunRate", 0.0); // This would need to be calculated
-                    return teamStats;
-                })
-                .sorted((a, b) -> Integer.compare((Integer) b.get("points"), (Integer) a.get("points")))
-                .collect(Collectors.toList());
+        return standingsService.getStandings(leagueId);
     }
     
     public Long calculateManOfTheMatch(Long matchId) {
-        List<Innings> innings = inningsRepository.findByMatchId(matchId);
-        
-        Map<Long, Integer> playerPoints = new HashMap<>();
-        
-        for (Innings inning : innings) {
-            List<Ball> balls = ballRepository.findByInningsIdOrderByOverAndBall(inning.getId());
-            
-            for (Ball ball : balls) {
-                Long batsmanId = ball.getBatsman().getId();
-                Long bowlerId = ball.getBowler().getId();
-                
-                // Batting points: 1 point per run
-                int battingPoints = ball.getRuns();
-                playerPoints.merge(batsmanId, battingPoints, Integer::sum);
-                
-                // Bowling points: 20 points per wicket
-                if (ball.getIsWicket()) {
-                    int bowlingPoints = 20;
-                    playerPoints.merge(bowlerId, bowlingPoints, Integer::sum);
-                }
-            }
+        if (!matchRepository.existsById(matchId)) {
+            throw new RuntimeException("Match not found with id: " + matchId);
         }
         
-        return playerPoints.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
+        // Batting points: 1 point per run; bowling points: 20 points per wicket. Read from the
+        // match's own player_innings rows rather than loading its whole league's ball store.
+        return playerInningsRepository.findTopPlayerIdByMatchId(matchId, 1, 20).orElse(null);
     }
 }
@@ -26,8 +26,18 @@ public class TeamService {
     @Autowired
     private PlayerRepository playerRepository;
     
+    @Autowired
+    private StandingsService standingsService;
+    
+    @Autowired
+    private LiveLeaderboardService liveLeaderboardService;
+    
     public Team createTeam(Team team) {
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        if (saved.getLeague() != null) {
+            standingsService.evict(saved.getLeague().getId());
+        }
+        return saved;
     }
     
     @Transactional(readOnly = true)
@@ -51,6 +61,8 @@ public class TeamService {
         
         team.setName(teamDetails.getName());
         team.setLogoUrl(teamDetails.getLogoUrl());
+        // Team names are held in the points table
+        standingsService.evict(team.getLeague().getId());
         
         return teamRepository.save(team);
     }
@@ -59,6 +71,7 @@ public class TeamService {
         Team team = teamRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Team not found with id: " + id));
         teamRepository.delete(team);
+        standingsService.evict(team.getLeague().getId());
     }
     
     public Player addPlayerToTeam(Long teamId, Player player) {
@@ -66,7 +79,11 @@ public class TeamService {
                 .orElseThrow(() -> new RuntimeException("Team not found with id: " + teamId));
         
         player.setTeam(team);
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        if (team.getLeague() != null) {
+            liveLeaderboardService.addPlayer(team.getLeague().getId(), saved);
+        }
+        return saved;
     }
     
     @Transactional(readOnly = true)
@@ -83,5 +100,8 @@ public class TeamService {
         }
         
         playerRepository.delete(player);
+        if (player.getTeam().getLeague() != null) {
+            liveLeaderboardService.evict(player.getTeam().getLeague().getId());
+        }
     }
 }
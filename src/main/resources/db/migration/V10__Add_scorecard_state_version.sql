@@ -0,0 +1,7 @@
+-- Match state version a stored scorecard reflects, so a delayed flush cannot overwrite a newer one
+ALTER TABLE match_scorecards ADD COLUMN state_version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE match_scorecards s
+SET state_version = m.state_version
+FROM matches m
+WHERE m.id = s.match_id;
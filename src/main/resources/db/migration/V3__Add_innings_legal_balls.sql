@@ -0,0 +1,12 @@
+-- Track legal deliveries per innings so ball ingestion can update totals incrementally
+ALTER TABLE innings ADD COLUMN legal_balls INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill from existing ball-by-ball data
+UPDATE innings i
+SET legal_balls = (
+    SELECT COUNT(*)
+    FROM balls b
+    WHERE b.innings_id = i.id
+      AND COALESCE(b.is_wide, FALSE) = FALSE
+      AND COALESCE(b.is_no_ball, FALSE) = FALSE
+);
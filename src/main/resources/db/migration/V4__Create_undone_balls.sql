@@ -0,0 +1,23 @@
+-- Per-match redo log: balls removed by undo, most recent last
+CREATE TABLE undone_balls (
+    id BIGSERIAL PRIMARY KEY,
+    match_id BIGINT NOT NULL REFERENCES matches(id) ON DELETE CASCADE,
+    innings_number INTEGER NOT NULL,
+    batsman_id BIGINT NOT NULL REFERENCES players(id) ON DELETE CASCADE,
+    bowler_id BIGINT NOT NULL REFERENCES players(id) ON DELETE CASCADE,
+    runs INTEGER NOT NULL DEFAULT 0,
+    is_wicket BOOLEAN NOT NULL DEFAULT FALSE,
+    wicket_type VARCHAR(50),
+    extra_type VARCHAR(50),
+    extra_runs INTEGER DEFAULT 0,
+    is_wide BOOLEAN DEFAULT FALSE,
+    is_no_ball BOOLEAN DEFAULT FALSE,
+    is_bye BOOLEAN DEFAULT FALSE,
+    is_leg_bye BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_undone_balls_match_id ON undone_balls(match_id, id);
+
+-- Latest ball of a match is looked up on every undo
+CREATE INDEX idx_balls_innings_id_id ON balls(innings_id, id);
@@ -0,0 +1,38 @@
+-- Every scoring change advances a per-match state version; balls record the version they were written at
+ALTER TABLE matches ADD COLUMN state_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE balls ADD COLUMN sequence_number BIGINT;
+
+-- Backfill sequence numbers in insertion order within each match
+UPDATE balls b
+SET sequence_number = numbered.seq
+FROM (
+    SELECT b2.id, ROW_NUMBER() OVER (PARTITION BY i.match_id ORDER BY b2.id) AS seq
+    FROM balls b2
+    JOIN innings i ON i.id = b2.innings_id
+) numbered
+WHERE b.id = numbered.id;
+
+UPDATE matches m
+SET state_version = COALESCE((
+    SELECT MAX(b.sequence_number)
+    FROM balls b
+    JOIN innings i ON i.id = b.innings_id
+    WHERE i.match_id = m.id
+), 0);
+
+ALTER TABLE balls ALTER COLUMN sequence_number SET NOT NULL;
+CREATE UNIQUE INDEX idx_balls_innings_sequence ON balls(innings_id, sequence_number);
+
+-- Innings state captured at over boundaries; rebuilding replays only balls after the snapshot
+CREATE TABLE innings_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    innings_id BIGINT NOT NULL REFERENCES innings(id) ON DELETE CASCADE,
+    sequence_number BIGINT NOT NULL,
+    total_runs INTEGER NOT NULL,
+    wickets INTEGER NOT NULL,
+    legal_balls INTEGER NOT NULL,
+    state TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX idx_innings_snapshots_innings_sequence ON innings_snapshots(innings_id, sequence_number);
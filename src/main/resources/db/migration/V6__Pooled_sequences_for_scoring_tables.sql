@@ -0,0 +1,11 @@
+-- Balls, innings and scorecards take ids from pooled sequences (allocationSize = 50) so
+-- Hibernate can batch their inserts. The BIGSERIAL sequences are reused with a matching
+-- increment and moved past the current maximum id.
+ALTER SEQUENCE balls_id_seq INCREMENT BY 50;
+SELECT setval('balls_id_seq', COALESCE((SELECT MAX(id) FROM balls), 0) + 50);
+
+ALTER SEQUENCE innings_id_seq INCREMENT BY 50;
+SELECT setval('innings_id_seq', COALESCE((SELECT MAX(id) FROM innings), 0) + 50);
+
+ALTER SEQUENCE match_scorecards_id_seq INCREMENT BY 50;
+SELECT setval('match_scorecards_id_seq', COALESCE((SELECT MAX(id) FROM match_scorecards), 0) + 50);
@@ -0,0 +1,4 @@
+-- Optional client-supplied idempotency key for each delivery, unique within an innings
+ALTER TABLE balls ADD COLUMN delivery_key VARCHAR(64);
+
+CREATE UNIQUE INDEX idx_balls_innings_delivery_key ON balls(innings_id, delivery_key) WHERE delivery_key IS NOT NULL;
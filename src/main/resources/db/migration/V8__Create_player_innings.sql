@@ -0,0 +1,49 @@
+-- Per player, per innings batting and bowling figures, maintained as balls are added and undone
+CREATE TABLE player_innings (
+    id BIGSERIAL PRIMARY KEY,
+    innings_id BIGINT NOT NULL REFERENCES innings(id) ON DELETE CASCADE,
+    player_id BIGINT NOT NULL REFERENCES players(id) ON DELETE CASCADE,
+    runs INTEGER NOT NULL DEFAULT 0,
+    balls_faced INTEGER NOT NULL DEFAULT 0,
+    fours INTEGER NOT NULL DEFAULT 0,
+    sixes INTEGER NOT NULL DEFAULT 0,
+    is_out BOOLEAN NOT NULL DEFAULT FALSE,
+    dismissal VARCHAR(50),
+    legal_balls_bowled INTEGER NOT NULL DEFAULT 0,
+    runs_conceded INTEGER NOT NULL DEFAULT 0,
+    wickets INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX idx_player_innings_innings_player ON player_innings(innings_id, player_id);
+CREATE INDEX idx_player_innings_player ON player_innings(player_id);
+
+-- Backfill batting figures, then merge bowling figures into the same rows
+INSERT INTO player_innings (innings_id, player_id, runs, balls_faced, fours, sixes, is_out, dismissal)
+SELECT b.innings_id,
+       b.batsman_id,
+       SUM(b.runs),
+       COUNT(*) FILTER (WHERE NOT COALESCE(b.is_wide, FALSE) AND NOT COALESCE(b.is_no_ball, FALSE)),
+       COUNT(*) FILTER (WHERE b.runs = 4),
+       COUNT(*) FILTER (WHERE b.runs = 6),
+       BOOL_OR(b.is_wicket),
+       MAX(b.wicket_type) FILTER (WHERE b.is_wicket)
+FROM balls b
+GROUP BY b.innings_id, b.batsman_id;
+
+INSERT INTO player_innings (innings_id, player_id, legal_balls_bowled, runs_conceded, wickets)
+SELECT b.innings_id,
+       b.bowler_id,
+       COUNT(*) FILTER (WHERE NOT COALESCE(b.is_wide, FALSE) AND NOT COALESCE(b.is_no_ball, FALSE)),
+       SUM(b.runs),
+       COUNT(*) FILTER (WHERE b.is_wicket)
+FROM balls b
+GROUP BY b.innings_id, b.bowler_id
+ON CONFLICT (innings_id, player_id) DO UPDATE
+SET legal_balls_bowled = EXCLUDED.legal_balls_bowled,
+    runs_conceded = EXCLUDED.runs_conceded,
+    wickets = EXCLUDED.wickets;
+
+-- Pooled ids (allocationSize = 50) as for the other scoring tables
+ALTER SEQUENCE player_innings_id_seq INCREMENT BY 50;
+SELECT setval('player_innings_id_seq', COALESCE((SELECT MAX(id) FROM player_innings), 0) + 50);
@@ -0,0 +1,2 @@
+-- Undone balls keep their idempotency key so a redone ball still answers retries of the original post
+ALTER TABLE undone_balls ADD COLUMN delivery_key VARCHAR(64);
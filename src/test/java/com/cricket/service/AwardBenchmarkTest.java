@@ -0,0 +1,90 @@
+package com.cricket.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tournament awards for the synthetic season through the whole application, with award pools
+ * of 1 to N threads. Cold runs stream the league's balls from PostgreSQL first; warm runs
+ * find them already loaded.
+ */
+@Tag(Benchmarks.TAG)
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AwardBenchmarkTest {
+    
+    private static final long DEADLINE_MS = 60_000;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private LeagueBallStore leagueBallStore;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+    
+    @Test
+    void tournamentAwards() {
+        Long leagueId = BenchmarkDatabase.seasonLeagueId(jdbcTemplate);
+        int processors = Runtime.getRuntime().availableProcessors();
+        TreeSet<Integer> parallelisms = new TreeSet<>();
+        for (int parallelism = 1; parallelism <= Math.max(4, processors); parallelism *= 2) {
+            parallelisms.add(parallelism);
+        }
+        parallelisms.add(processors);
+        Benchmarks.report("available processors", "%d", processors);
+        
+        Map<String, Object> expected = null;
+        for (int parallelism : parallelisms) {
+            AwardService awardService = new AwardService(transactionManager, parallelism, DEADLINE_MS);
+            applicationContext.getAutowireCapableBeanFactory().autowireBean(awardService);
+            try {
+                Map<String, Object> awards = awards(awardService, leagueId);
+                if (expected == null) {
+                    expected = awards;
+                }
+                assertEquals(expected, awards);
+                
+                long cold = Benchmarks.medianNanos(2, 10, () -> {
+                    leagueBallStore.evict(leagueId);
+                    awards(awardService, leagueId);
+                });
+                long warm = Benchmarks.medianNanos(20, 50, () -> awards(awardService, leagueId));
+                Benchmarks.report(parallelism + " award threads", "cold %8.2f ms, warm %8.2f ms",
+                        Benchmarks.millis(cold), Benchmarks.millis(warm));
+            } finally {
+                awardService.shutdown();
+            }
+        }
+    }
+    
+    // The service is not proxied here, so the transaction its @Transactional would start is opened explicitly
+    private Map<String, Object> awards(AwardService awardService, Long leagueId) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> awardService.calculateTournamentAwards(leagueId));
+    }
+}
@@ -0,0 +1,74 @@
+package com.cricket.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Most valuable player points over a whole league, scanned on the calling thread and split
+ * across fork-join pools of 1 to N workers, where N is at least 4 and at least the CPU count.
+ */
+@Tag(Benchmarks.TAG)
+class BallColumnsBenchmarkTest {
+    
+    private static final byte DOT = BallColumns.flags(false, false, false, false, false);
+    
+    private static final byte WICKET = BallColumns.flags(true, false, false, false, false);
+    
+    private final long deadline = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+    
+    @Test
+    void leaguePointsScan() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        TreeSet<Integer> parallelisms = new TreeSet<>();
+        for (int parallelism = 1; parallelism <= Math.max(4, processors); parallelism *= 2) {
+            parallelisms.add(parallelism);
+        }
+        parallelisms.add(processors);
+        Benchmarks.report("available processors", "%d", processors);
+        
+        for (int rows : new int[] {144_000, 1_440_000}) {
+            BallColumns.Snapshot snapshot = league(rows).snapshot();
+            Map<Long, Integer> expected = snapshot.playerPoints(null, 1, 20, null, deadline);
+            
+            long sequential = Benchmarks.medianNanos(100, 30,
+                    () -> assertEquals(expected.size(), snapshot.playerPoints(null, 1, 20, null, deadline).size()));
+            report(rows + " balls, calling thread", sequential, sequential);
+            
+            for (int parallelism : parallelisms) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    assertEquals(expected, snapshot.playerPoints(null, 1, 20, pool, deadline));
+                    long nanos = Benchmarks.medianNanos(100, 30,
+                            () -> assertEquals(expected.size(), snapshot.playerPoints(null, 1, 20, pool, deadline).size()));
+                    report(rows + " balls, " + parallelism + " workers", nanos, sequential);
+                } finally {
+                    pool.shutdownNow();
+                }
+            }
+        }
+    }
+    
+    private static BallColumns league(int rows) {
+        Random random = new Random(rows);
+        BallColumns columns = new BallColumns(rows);
+        for (int row = 0; row < rows; row++) {
+            int match = row / 240;
+            columns.append(row + 1, match + 1, row / 120 + 1, row % 120 / 6, row % 6 + 1,
+                    1 + random.nextInt(1_100), 1 + random.nextInt(1_100), random.nextInt(7),
+                    row % 12 == 11 ? WICKET : DOT);
+        }
+        return columns;
+    }
+    
+    private static void report(String name, long nanos, long sequential) {
+        Benchmarks.report(name, "%8.2f ms %6.2fx", Benchmarks.millis(nanos), (double) sequential / nanos);
+    }
+}
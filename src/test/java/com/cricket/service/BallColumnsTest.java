@@ -0,0 +1,86 @@
+package com.cricket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BallColumnsTest {
+    
+    private static final byte DOT = BallColumns.flags(false, false, false, false, false);
+    
+    private static final byte WICKET = BallColumns.flags(true, false, false, false, false);
+    
+    private final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+    
+    @Test
+    void runsScoreForTheBatterAndWicketsForTheBowler() {
+        BallColumns columns = new BallColumns(4);
+        columns.append(1, 100, 10, 0, 1, 7001, 8001, 4, DOT);
+        columns.append(2, 100, 10, 0, 2, 7001, 8001, 0, WICKET);
+        columns.append(3, 100, 10, 0, 3, 7002, 8001, 6, DOT);
+        
+        Map<Long, Integer> points = columns.snapshot().playerPoints(null, 1, 20, null, deadline);
+        
+        assertEquals(Map.of(7001L, 4, 7002L, 6, 8001L, 20), points);
+    }
+    
+    @Test
+    void oneMatchCanBeScannedOnItsOwn() {
+        BallColumns columns = new BallColumns(4);
+        columns.append(1, 100, 10, 0, 1, 7001, 8001, 4, DOT);
+        columns.append(2, 200, 20, 0, 1, 7002, 8002, 2, WICKET);
+        
+        assertEquals(Map.of(7002L, 2, 8002L, 20), columns.snapshot().playerPoints(200L, 1, 20, null, deadline));
+    }
+    
+    @Test
+    void aSnapshotIgnoresRowsAppendedAndUndoneAfterIt() {
+        BallColumns columns = new BallColumns(1);
+        columns.append(1, 100, 10, 0, 1, 7001, 8001, 4, DOT);
+        BallColumns.Snapshot snapshot = columns.snapshot();
+        
+        // Forces the columns to grow and a new player to be encoded
+        columns.append(2, 100, 10, 0, 2, 7002, 8001, 6, DOT);
+        columns.markUndone(1);
+        
+        assertEquals(1, snapshot.size());
+        assertEquals(Map.of(7001L, 4), snapshot.playerPoints(null, 1, 20, null, deadline));
+        assertEquals(Map.of(7002L, 6), columns.snapshot().playerPoints(null, 1, 20, null, deadline));
+    }
+    
+    @Test
+    void aParallelScanAgreesWithASequentialOne() {
+        Random random = new Random(42);
+        BallColumns columns = new BallColumns(1024);
+        for (int row = 0; row < 100_000; row++) {
+            boolean wicket = random.nextInt(30) == 0;
+            columns.append(row + 1, 1 + random.nextInt(50), 1 + random.nextInt(100), row / 6 % 20, row % 6 + 1,
+                    1 + random.nextInt(300), 1 + random.nextInt(300), random.nextInt(7),
+                    wicket ? WICKET : DOT);
+        }
+        BallColumns.Snapshot snapshot = columns.snapshot();
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(snapshot.playerPoints(null, 1, 20, null, deadline),
+                    snapshot.playerPoints(null, 1, 20, pool, deadline));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    @Test
+    void aScanPastItsDeadlineGivesUp() {
+        BallColumns columns = new BallColumns(4);
+        columns.append(1, 100, 10, 0, 1, 7001, 8001, 4, DOT);
+        long passed = System.nanoTime() - 1;
+        
+        assertThrows(CancellationException.class, () -> columns.snapshot().playerPoints(null, 1, 20, null, passed));
+    }
+}
@@ -0,0 +1,214 @@
+package com.cricket.service;
+
+import com.cricket.entity.Ball;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BallIngestionServiceTest {
+    
+    private static final Long MATCH_ID = 7L;
+    
+    private final StubTransactionManager transactionManager = new StubTransactionManager();
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    private BallIngestionService ingestion = service(10_000);
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        ingestion.shutdown();
+    }
+    
+    @Test
+    void aFailedBatchIsRetriedOneWriteAtATime() throws Exception {
+        CompletableFuture<String> blocker = blockWorker();
+        AtomicInteger firstAttempts = new AtomicInteger();
+        CompletableFuture<String> first = ingestion.submit(MATCH_ID, () -> {
+            firstAttempts.incrementAndGet();
+            return "first";
+        });
+        CompletableFuture<String> bad = ingestion.submit(MATCH_ID, () -> {
+            throw new IllegalArgumentException("bad ball");
+        });
+        CompletableFuture<String> last = ingestion.submit(MATCH_ID, () -> "last");
+        release.countDown();
+        
+        assertEquals("blocker", blocker.get(5, TimeUnit.SECONDS));
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("last", last.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        
+        // The batch rolled back, then each write ran in its own transaction and only the bad one rolled back
+        assertEquals(2, firstAttempts.get());
+        assertEquals(2, transactionManager.rollbacks.get());
+        assertEquals(3, transactionManager.commits.get());
+    }
+    
+    @Test
+    void aBatchWhoseCommitCallbackFailsIsNotRetried() throws Exception {
+        CompletableFuture<String> blocker = blockWorker();
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> first = ingestion.submit(MATCH_ID, () -> {
+            attempts.incrementAndGet();
+            failAfterCommit();
+            return "first";
+        });
+        CompletableFuture<String> second = ingestion.submit(MATCH_ID, () -> {
+            attempts.incrementAndGet();
+            return "second";
+        });
+        release.countDown();
+        
+        assertEquals("blocker", blocker.get(5, TimeUnit.SECONDS));
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(0, transactionManager.rollbacks.get());
+    }
+    
+    @Test
+    void aSingleWriteWhoseCommitCallbackFailsStillSucceeds() throws Exception {
+        CompletableFuture<String> write = ingestion.submit(MATCH_ID, () -> {
+            failAfterCommit();
+            return "written";
+        });
+        
+        assertEquals("written", write.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void aCallerThatTimesOutIsShedAndItsQueuedWriteSkipped() throws Exception {
+        ingestion.shutdown();
+        ingestion = service(100);
+        MatchService matchService = mock(MatchService.class);
+        ReflectionTestUtils.setField(ingestion, "matchService", matchService);
+        
+        CompletableFuture<String> blocker = blockWorker();
+        assertThrows(RejectedExecutionException.class, () -> ingestion.undoLastBall(MATCH_ID));
+        release.countDown();
+        
+        assertEquals("blocker", blocker.get(5, TimeUnit.SECONDS));
+        // Queued behind the skipped undo, so it only completes once the lane has passed it
+        assertEquals("after", ingestion.submit(MATCH_ID, () -> "after").get(5, TimeUnit.SECONDS));
+        verify(matchService, never()).undoLastBall(MATCH_ID);
+    }
+    
+    @Test
+    void aCallerThatTimesOutOnAWriteAlreadyApplyingIsNotInvitedToRetry() throws Exception {
+        ingestion.shutdown();
+        ingestion = service(100);
+        MatchService matchService = mock(MatchService.class);
+        ReflectionTestUtils.setField(ingestion, "matchService", matchService);
+        CountDownLatch started = new CountDownLatch(1);
+        Ball redone = new Ball();
+        when(matchService.redoLastBall(MATCH_ID)).thenAnswer(invocation -> {
+            awaitRelease(started).get();
+            return redone;
+        });
+        
+        assertThrows(BallIngestionService.WriteOutcomeUnknownException.class, () -> ingestion.redoLastBall(MATCH_ID));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        
+        // The write was not abandoned, so it still runs to its commit
+        assertEquals("after", ingestion.submit(MATCH_ID, () -> "after").get(5, TimeUnit.SECONDS));
+        assertEquals(2, transactionManager.commits.get());
+        verify(matchService).redoLastBall(MATCH_ID);
+    }
+    
+    @Test
+    void anIdleLaneIsDropped() throws Exception {
+        assertEquals("written", ingestion.submit(MATCH_ID, () -> "written").get(5, TimeUnit.SECONDS));
+        
+        Map<?, ?> lanes = (Map<?, ?>) ReflectionTestUtils.getField(ingestion, "lanes");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!lanes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(lanes.isEmpty());
+        assertEquals(0, ingestion.getQueueDepth(MATCH_ID));
+    }
+    
+    private BallIngestionService service(long awaitTimeoutMs) {
+        return new BallIngestionService(transactionManager, new SimpleMeterRegistry(), 1, 16, 32, awaitTimeoutMs);
+    }
+    
+    // Holds the only worker inside a write of the match so the next writes queue up as one batch
+    private CompletableFuture<String> blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> blocker = ingestion.submit(MATCH_ID, awaitRelease(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+    
+    private Supplier<String> awaitRelease(CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return "blocker";
+        };
+    }
+    
+    private static void failAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                throw new IllegalStateException("listener failed");
+            }
+        });
+    }
+    
+    // Runs real synchronization callbacks around a transaction that touches nothing
+    private static final class StubTransactionManager extends AbstractPlatformTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.cricket.service;
+
+import com.cricket.entity.Ball;
+import com.cricket.entity.Innings;
+import com.cricket.entity.Player;
+import com.cricket.repository.BallRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts per second for the balls of a 20-over innings: one round trip per ball, as the
+ * IDENTITY ids used to force, against the pooled-sequence ids that let Hibernate batch them.
+ */
+@Tag(Benchmarks.TAG)
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BallInsertBenchmarkTest {
+    
+    private static final int BALLS = 120;
+    
+    private static final int WARMUPS = 20;
+    
+    private static final int RUNS = 50;
+    
+    @Autowired
+    private BallRepository ballRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long inningsId;
+    
+    private List<Long> batters;
+    
+    private List<Long> bowlers;
+    
+    private long nextSequence;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+    
+    @BeforeEach
+    void setUp() {
+        // Sample match 1 from V2: team 1 bats against team 2
+        inningsId = jdbcTemplate.queryForObject("INSERT INTO innings (match_id, batting_team_id, bowling_team_id, " +
+                "innings_number) VALUES (1, 1, 2, 1) RETURNING id", Long.class);
+        batters = jdbcTemplate.queryForList("SELECT id FROM players WHERE team_id = 1 ORDER BY id", Long.class);
+        bowlers = jdbcTemplate.queryForList("SELECT id FROM players WHERE team_id = 2 ORDER BY id", Long.class);
+    }
+    
+    @Test
+    void inningsInsertedOneRoundTripPerBall() {
+        long nanos = Benchmarks.medianNanos(WARMUPS, RUNS, this::insertOneByOne);
+        
+        report("one round trip per ball", nanos);
+        assertEquals((WARMUPS + RUNS) * BALLS, countBalls());
+    }
+    
+    @Test
+    void inningsInsertedInJdbcBatches() {
+        long nanos = Benchmarks.medianNanos(WARMUPS, RUNS, this::insertBatched);
+        
+        report("pooled ids, JDBC batches", nanos);
+        assertEquals((WARMUPS + RUNS) * BALLS, countBalls());
+    }
+    
+    private void insertOneByOne() {
+        for (int i = 0; i < BALLS; i++) {
+            jdbcTemplate.queryForObject("INSERT INTO balls (innings_id, over_number, ball_number, sequence_number, " +
+                    "batsman_id, bowler_id, runs) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id", Long.class,
+                    inningsId, i / 6, i % 6 + 1, nextSequence++, batter(i), bowler(i), i % 7);
+        }
+    }
+    
+    private void insertBatched() {
+        Innings innings = entityManager.getReference(Innings.class, inningsId);
+        List<Ball> balls = new ArrayList<>(BALLS);
+        for (int i = 0; i < BALLS; i++) {
+            Ball ball = new Ball(innings, i / 6, i % 6 + 1,
+                    entityManager.getReference(Player.class, batter(i)),
+                    entityManager.getReference(Player.class, bowler(i)));
+            ball.setSequenceNumber(nextSequence++);
+            ball.setRuns(i % 7);
+            balls.add(ball);
+        }
+        ballRepository.saveAll(balls);
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private Long batter(int ball) {
+        return batters.get(ball / 12 % batters.size());
+    }
+    
+    private Long bowler(int ball) {
+        return bowlers.get(ball / 6 % bowlers.size());
+    }
+    
+    private int countBalls() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balls WHERE innings_id = ?", Integer.class, inningsId);
+    }
+    
+    private static void report(String name, long nanos) {
+        Benchmarks.report(name, "%8.2f ms/innings %10.0f inserts/s",
+                Benchmarks.millis(nanos), BALLS * 1_000_000_000.0 / nanos);
+    }
+}
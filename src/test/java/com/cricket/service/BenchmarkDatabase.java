@@ -0,0 +1,80 @@
+package com.cricket.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One PostgreSQL container shared by the database benchmarks. Flyway is not on the classpath,
+ * so the application's migrations are applied here in version order, with a synthetic season
+ * of balls loaded before V8 so that its backfill builds player_innings from them.
+ */
+final class BenchmarkDatabase {
+    
+    static final String SEASON = "Benchmark Season";
+    
+    private static final int SEASON_BEFORE_VERSION = 8;
+    
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    private static boolean started;
+    
+    private BenchmarkDatabase() {
+    }
+    
+    static synchronized void register(DynamicPropertyRegistry registry) {
+        start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+    
+    private static void start() {
+        if (started) {
+            return;
+        }
+        POSTGRES.start();
+        try (Connection connection = POSTGRES.createConnection("");
+             Statement statement = connection.createStatement()) {
+            for (Resource migration : migrations()) {
+                if (version(migration) == SEASON_BEFORE_VERSION) {
+                    statement.execute(new ClassPathResource("benchmark/season.sql")
+                            .getContentAsString(StandardCharsets.UTF_8));
+                }
+                statement.execute(migration.getContentAsString(StandardCharsets.UTF_8));
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Could not migrate the benchmark database", e);
+        }
+        started = true;
+    }
+    
+    static Long seasonLeagueId(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT id FROM leagues WHERE name = ?", Long.class, SEASON);
+    }
+    
+    private static List<Resource> migrations() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/V*__*.sql");
+        return Arrays.stream(resources)
+                .sorted(Comparator.comparingInt(BenchmarkDatabase::version))
+                .toList();
+    }
+    
+    private static int version(Resource migration) {
+        String name = migration.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
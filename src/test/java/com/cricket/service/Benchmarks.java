@@ -0,0 +1,48 @@
+package com.cricket.service;
+
+import java.util.Arrays;
+
+/**
+ * Timing for the benchmark-tagged tests. They are left out of the default build and run with
+ * {@code mvn test -Pbenchmark}; results are printed with a {@code [benchmark]} prefix.
+ */
+final class Benchmarks {
+    
+    static final String TAG = "benchmark";
+    
+    private Benchmarks() {
+    }
+    
+    /**
+     * Median wall time of one run in nanoseconds, after warm-up runs that let the JIT compile
+     * the code being timed
+     */
+    static long medianNanos(int warmups, int runs, Runnable run) {
+        for (int i = 0; i < warmups; i++) {
+            run.run();
+        }
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            run.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+    
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    static void report(String name, String format, Object... args) {
+        System.out.printf("[benchmark] %-40s " + format + "%n", prepend(name, args));
+    }
+    
+    private static Object[] prepend(Object first, Object[] rest) {
+        Object[] all = new Object[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+}
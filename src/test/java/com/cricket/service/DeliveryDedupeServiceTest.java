@@ -0,0 +1,114 @@
+package com.cricket.service;
+
+import com.cricket.dto.BallDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryDedupeServiceTest {
+    
+    private final DeliveryDedupeService dedupe = new DeliveryDedupeService(100);
+    
+    @Test
+    void aRetryIsAnsweredWithTheOriginalResponse() {
+        AtomicInteger writes = new AtomicInteger();
+        BallDTO first = dedupe.submitOnce(1L, 1, "key-1", () -> write(writes));
+        BallDTO retry = dedupe.submitOnce(1L, 1, "key-1", () -> write(writes));
+        
+        assertSame(first, retry);
+        assertEquals(1, writes.get());
+    }
+    
+    @Test
+    void keysAreScopedToTheMatchAndInnings() {
+        AtomicInteger writes = new AtomicInteger();
+        dedupe.submitOnce(1L, 1, "key-1", () -> write(writes));
+        dedupe.submitOnce(1L, 2, "key-1", () -> write(writes));
+        dedupe.submitOnce(2L, 1, "key-1", () -> write(writes));
+        
+        assertEquals(3, writes.get());
+    }
+    
+    @Test
+    void aFailedWriteIsNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> dedupe.submitOnce(1L, 1, "key-1", () -> {
+            throw new IllegalStateException("rolled back");
+        }));
+        
+        AtomicInteger writes = new AtomicInteger();
+        dedupe.submitOnce(1L, 1, "key-1", () -> write(writes));
+        
+        assertEquals(1, writes.get());
+    }
+    
+    @Test
+    void aForgottenKeyIsWrittenAgain() {
+        AtomicInteger writes = new AtomicInteger();
+        dedupe.submitOnce(1L, 1, "key-1", () -> write(writes));
+        dedupe.forget(1L, 1, "key-1");
+        dedupe.submitOnce(1L, 1, "key-1", () -> write(writes));
+        
+        assertEquals(2, writes.get());
+    }
+    
+    @Test
+    void aRememberedResponseAnswersLaterRetries() {
+        BallDTO redone = new BallDTO();
+        dedupe.remember(1L, 1, "key-1", redone);
+        
+        BallDTO retry = dedupe.submitOnce(1L, 1, "key-1", () -> fail("retry should not write"));
+        
+        assertSame(redone, retry);
+    }
+    
+    @Test
+    void theOldestKeyIsDroppedOnceTheCacheIsFull() {
+        DeliveryDedupeService small = new DeliveryDedupeService(1);
+        AtomicInteger writes = new AtomicInteger();
+        small.submitOnce(1L, 1, "key-1", () -> write(writes));
+        small.submitOnce(1L, 1, "key-2", () -> write(writes));
+        small.submitOnce(1L, 1, "key-1", () -> write(writes));
+        
+        assertEquals(3, writes.get());
+    }
+    
+    @Test
+    void aRetryArrivingDuringTheWriteWaitsForIt() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        
+        CompletableFuture<BallDTO> first = CompletableFuture.supplyAsync(() -> dedupe.submitOnce(1L, 1, "key-1", () -> {
+            writing.countDown();
+            await(release);
+            return write(writes);
+        }));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        
+        CompletableFuture<BallDTO> retry = CompletableFuture.supplyAsync(() -> dedupe.submitOnce(1L, 1, "key-1",
+                () -> write(writes)));
+        release.countDown();
+        
+        assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, writes.get());
+    }
+    
+    private static BallDTO write(AtomicInteger writes) {
+        writes.incrementAndGet();
+        return new BallDTO();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.cricket.service;
+
+import com.cricket.entity.Ball;
+import com.cricket.entity.Player;
+import com.cricket.repository.BallRepository;
+import com.cricket.repository.PlayerBattingTotals;
+import com.cricket.repository.PlayerBowlingTotals;
+import com.cricket.repository.PlayerInningsRepository;
+import com.cricket.repository.PlayerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Batting and bowling leaderboard latency on the synthetic 10-team, 60-match season: every
+ * player's balls loaded one player at a time, as the leaderboards used to, against the two
+ * aggregate queries that serve them now.
+ */
+@Tag(Benchmarks.TAG)
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LeaderboardBenchmarkTest {
+    
+    private static final int WARMUPS = 5;
+    
+    private static final int RUNS = 20;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private BallRepository ballRepository;
+    
+    @Autowired
+    private PlayerInningsRepository playerInningsRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long leagueId;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+    
+    @BeforeEach
+    void setUp() {
+        leagueId = BenchmarkDatabase.seasonLeagueId(jdbcTemplate);
+    }
+    
+    @Test
+    void leaderboardsFromEachPlayersBalls() {
+        long nanos = Benchmarks.medianNanos(WARMUPS, RUNS, () -> {
+            List<Player> players = playerRepository.findByLeagueId(leagueId);
+            List<long[]> rows = players.stream()
+                    .map(player -> new long[] {
+                            player.getId(),
+                            ballRepository.findByBatsmanId(player.getId()).stream().mapToLong(Ball::getRuns).sum(),
+                            ballRepository.findByBowlerId(player.getId()).stream().filter(Ball::getIsWicket).count(),
+                            player.getTeam().getName().length()})
+                    .sorted(Comparator.comparingLong((long[] row) -> row[1]).reversed())
+                    .toList();
+            assertEquals(110, rows.size());
+            entityManager.clear();
+        });
+        
+        report("player by player balls", nanos);
+    }
+    
+    @Test
+    void leaderboardsFromAggregateQueries() {
+        long nanos = Benchmarks.medianNanos(WARMUPS, RUNS, () -> {
+            List<PlayerBattingTotals> batting = playerInningsRepository.findBattingTotalsByLeagueId(leagueId);
+            List<PlayerBowlingTotals> bowling = playerInningsRepository.findBowlingTotalsByLeagueId(leagueId);
+            assertEquals(110, batting.size());
+            assertEquals(110, bowling.size());
+        });
+        
+        report("aggregate queries", nanos);
+    }
+    
+    private static void report(String name, long nanos) {
+        Benchmarks.report(name, "%8.2f ms for both leaderboards", Benchmarks.millis(nanos));
+    }
+}
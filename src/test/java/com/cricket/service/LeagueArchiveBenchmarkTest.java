@@ -0,0 +1,100 @@
+package com.cricket.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Writing a completed league's archive and reading it back: both leaderboards in one scan of
+ * the mapped records, and one player's innings through their postings. Seasons are 10 teams
+ * of 11 players playing 60 matches of two 20-over innings, as in the database benchmarks.
+ */
+@Tag(Benchmarks.TAG)
+class LeagueArchiveBenchmarkTest {
+    
+    private static final int MATCHES = 60;
+    
+    private static final int BALLS = 120;
+    
+    private static final int[] RUNS = {0, 0, 1, 1, 1, 2, 2, 3, 4, 4, 6};
+    
+    private long sink;
+    
+    @Test
+    void archivedLeagueReads(@TempDir Path directory) throws IOException {
+        for (int seasons : new int[] {1, 10}) {
+            Path file = directory.resolve("league-" + seasons + ".ckar");
+            long write = Benchmarks.medianNanos(2, 5, () -> write(seasons, file));
+            
+            LeagueArchive archive = LeagueArchive.open(file);
+            int[][] batting = archive.battingTotals();
+            assertEquals(totalRuns(seasons), Arrays.stream(batting[0]).sum());
+            
+            long leaderboards = Benchmarks.medianNanos(200, 200,
+                    () -> sink += archive.battingTotals()[0][0] + archive.bowlingTotals()[2][0]);
+            long player = Benchmarks.medianNanos(20_000, 5_000,
+                    () -> sink += archive.playerInnings(playerId(0, 0, 0)).size());
+            
+            String season = seasons + (seasons == 1 ? " season, " : " seasons, ")
+                    + seasons * MATCHES * 2 * BALLS + " balls";
+            Benchmarks.report(season, "%7.2f MB file, write %7.2f ms",
+                    Files.size(file) / 1_048_576.0, Benchmarks.millis(write));
+            Benchmarks.report(season, "both leaderboards %7.2f ms, one player's innings %7.1f us",
+                    Benchmarks.millis(leaderboards), player / 1_000.0);
+        }
+    }
+    
+    private static void write(int seasons, Path file) {
+        LeagueArchive.Writer writer = new LeagueArchive.Writer(1);
+        long inningsId = 0;
+        for (int season = 0; season < seasons; season++) {
+            for (int match = 0; match < MATCHES; match++) {
+                int home = match % 10;
+                int away = (home + 1 + match / 10 % 9) % 10;
+                for (int innings = 0; innings < 2; innings++) {
+                    int batting = innings == 0 ? home : away;
+                    int bowling = innings == 0 ? away : home;
+                    inningsId++;
+                    for (int ball = 0; ball < BALLS; ball++) {
+                        writer.ball(inningsId, season * MATCHES + match + 1,
+                                playerId(season, batting, ball / 12), playerId(season, bowling, 6 + ball / 6 % 5),
+                                ball / 6, ball % 6 + 1, runs(inningsId, ball),
+                                BallColumns.flags(ball % 12 == 11, false, false, false, false));
+                    }
+                }
+            }
+        }
+        try {
+            writer.writeTo(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static long totalRuns(int seasons) {
+        long total = 0;
+        for (long inningsId = 1; inningsId <= (long) seasons * MATCHES * 2; inningsId++) {
+            for (int ball = 0; ball < BALLS; ball++) {
+                total += runs(inningsId, ball);
+            }
+        }
+        return total;
+    }
+    
+    private static int runs(long inningsId, int ball) {
+        return RUNS[(int) ((inningsId * 31 + ball * 17) % RUNS.length)];
+    }
+    
+    // Every season has its own squads, so career figures span players from one season only
+    private static long playerId(int season, int team, int player) {
+        return 1_000L * season + 11L * team + player + 1;
+    }
+}
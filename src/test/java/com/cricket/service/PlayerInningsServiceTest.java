@@ -0,0 +1,133 @@
+package com.cricket.service;
+
+import com.cricket.entity.Ball;
+import com.cricket.entity.Innings;
+import com.cricket.entity.Player;
+import com.cricket.entity.PlayerInnings;
+import com.cricket.repository.PlayerInningsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerInningsServiceTest {
+    
+    @Mock
+    private PlayerInningsRepository playerInningsRepository;
+    
+    @InjectMocks
+    private PlayerInningsService playerInningsService;
+    
+    private Innings innings;
+    
+    private Player batter;
+    
+    private Player bowler;
+    
+    @BeforeEach
+    void setUp() {
+        innings = new Innings();
+        innings.setId(10L);
+        batter = player(1L);
+        bowler = player(2L);
+    }
+    
+    @Test
+    void addingBallsCreatesBatterAndBowlerRows() {
+        when(playerInningsRepository.findByInningsIdAndPlayerIdIn(eq(10L), anyCollection())).thenReturn(List.of());
+        
+        playerInningsService.apply(innings, List.of(ball(4, false, false), ball(1, false, true), ball(0, true, false)), 1);
+        
+        Map<Long, PlayerInnings> rows = savedRows();
+        PlayerInnings batting = rows.get(1L);
+        assertEquals(5, batting.getRuns());
+        assertEquals(2, batting.getBallsFaced());
+        assertEquals(1, batting.getFours());
+        assertEquals(0, batting.getSixes());
+        assertTrue(batting.getIsOut());
+        assertEquals(Ball.WicketType.BOWLED, batting.getDismissal());
+        
+        PlayerInnings bowling = rows.get(2L);
+        assertEquals(5, bowling.getRunsConceded());
+        assertEquals(2, bowling.getLegalBallsBowled());
+        assertEquals(1, bowling.getWickets());
+    }
+    
+    @Test
+    void removingBallsReversesExistingRowsWithoutSavingNewOnes() {
+        List<Ball> balls = List.of(ball(6, false, false), ball(0, true, false));
+        when(playerInningsRepository.findByInningsIdAndPlayerIdIn(eq(10L), anyCollection())).thenReturn(List.of());
+        playerInningsService.apply(innings, balls, 1);
+        List<PlayerInnings> existing = new ArrayList<>(savedRows().values());
+        
+        reset(playerInningsRepository);
+        when(playerInningsRepository.findByInningsIdAndPlayerIdIn(eq(10L), anyCollection())).thenReturn(existing);
+        playerInningsService.apply(innings, balls, -1);
+        
+        verify(playerInningsRepository, never()).saveAll(anyList());
+        Map<Long, PlayerInnings> rows = byPlayer(existing);
+        PlayerInnings batting = rows.get(1L);
+        assertEquals(0, batting.getRuns());
+        assertEquals(0, batting.getBallsFaced());
+        assertEquals(0, batting.getSixes());
+        assertFalse(batting.getIsOut());
+        assertNull(batting.getDismissal());
+        
+        PlayerInnings bowling = rows.get(2L);
+        assertEquals(0, bowling.getRunsConceded());
+        assertEquals(0, bowling.getLegalBallsBowled());
+        assertEquals(0, bowling.getWickets());
+    }
+    
+    @Test
+    void widesCountAgainstTheBowlerButNotAsBallsFaced() {
+        when(playerInningsRepository.findByInningsIdAndPlayerIdIn(eq(10L), anyCollection())).thenReturn(List.of());
+        
+        playerInningsService.apply(innings, List.of(ball(0, false, true), ball(2, false, false)), 1);
+        
+        Map<Long, PlayerInnings> rows = savedRows();
+        assertEquals(1, rows.get(1L).getBallsFaced());
+        assertEquals(1, rows.get(2L).getLegalBallsBowled());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<Long, PlayerInnings> savedRows() {
+        ArgumentCaptor<List<PlayerInnings>> saved = ArgumentCaptor.forClass(List.class);
+        verify(playerInningsRepository).saveAll(saved.capture());
+        return byPlayer(saved.getValue());
+    }
+    
+    private static Map<Long, PlayerInnings> byPlayer(List<PlayerInnings> rows) {
+        return rows.stream().collect(Collectors.toMap(row -> row.getPlayer().getId(), Function.identity()));
+    }
+    
+    private Ball ball(int runs, boolean wicket, boolean wide) {
+        Ball ball = new Ball(innings, 0, 1, batter, bowler);
+        ball.setRuns(runs);
+        ball.setIsWicket(wicket);
+        ball.setWicketType(wicket ? Ball.WicketType.BOWLED : null);
+        ball.setIsWide(wide);
+        ball.setIsNoBall(false);
+        return ball;
+    }
+    
+    private static Player player(Long id) {
+        Player player = new Player();
+        player.setId(id);
+        return player;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cricket.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of one ball on a live ticker: update the batter's score, then read their rank and the
+ * leader. The treap against re-sorting every player of the league on each ball.
+ */
+@Tag(Benchmarks.TAG)
+class RankedScoresBenchmarkTest {
+    
+    private static final int BALLS = 20_000;
+    
+    private final long[] checksums = new long[2];
+    
+    @Test
+    void rankUpdatesPerBall() {
+        for (int players : new int[] {110, 1_000, 10_000}) {
+            Random random = new Random(players);
+            int[] batters = new int[BALLS];
+            int[] runs = new int[BALLS];
+            for (int i = 0; i < BALLS; i++) {
+                batters[i] = random.nextInt(players);
+                runs[i] = random.nextInt(7);
+            }
+            
+            long treap = Benchmarks.medianNanos(5, 7, () -> checksums[0] = treap(players, batters, runs));
+            long sorting = Benchmarks.medianNanos(5, 7, () -> checksums[1] = sorting(players, batters, runs));
+            
+            assertEquals(checksums[1], checksums[0]);
+            report("treap, " + players + " players", treap);
+            report("re-sort, " + players + " players", sorting);
+        }
+    }
+    
+    private static long treap(int players, int[] batters, int[] runs) {
+        RankedScores ranking = new RankedScores();
+        int[] scores = new int[players];
+        for (int player = 0; player < players; player++) {
+            ranking.add(player, 0);
+        }
+        
+        long checksum = 0;
+        for (int i = 0; i < batters.length; i++) {
+            int player = batters[i];
+            ranking.remove(player, scores[player]);
+            scores[player] += runs[i];
+            ranking.add(player, scores[player]);
+            checksum += ranking.indexOf(player, scores[player]) * 31L + ranking.playerAt(0);
+        }
+        return checksum;
+    }
+    
+    private static long sorting(int players, int[] batters, int[] runs) {
+        int[] scores = new int[players];
+        Integer[] order = new Integer[players];
+        for (int player = 0; player < players; player++) {
+            order[player] = player;
+        }
+        Comparator<Integer> ranked = Comparator.<Integer>comparingInt(player -> -scores[player])
+                .thenComparingInt(player -> player);
+        
+        long checksum = 0;
+        for (int i = 0; i < batters.length; i++) {
+            int player = batters[i];
+            scores[player] += runs[i];
+            Arrays.sort(order, ranked);
+            int rank = 0;
+            while (order[rank] != player) {
+                rank++;
+            }
+            checksum += rank * 31L + order[0];
+        }
+        return checksum;
+    }
+    
+    private static void report(String name, long nanos) {
+        Benchmarks.report(name, "%10.0f ns/ball", (double) nanos / BALLS);
+    }
+}
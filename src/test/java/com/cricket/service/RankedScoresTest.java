@@ -0,0 +1,101 @@
+package com.cricket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RankedScoresTest {
+    
+    @Test
+    void ranksHighestScoreFirstAndLowerPlayerIdFirstOnTies() {
+        RankedScores scores = new RankedScores();
+        scores.add(3, 50);
+        scores.add(1, 80);
+        scores.add(2, 50);
+        scores.add(4, 0);
+        
+        assertEquals(4, scores.size());
+        assertEquals(1, scores.playerAt(0));
+        assertEquals(2, scores.playerAt(1));
+        assertEquals(3, scores.playerAt(2));
+        assertEquals(4, scores.playerAt(3));
+        
+        assertEquals(0, scores.indexOf(1, 80));
+        assertEquals(1, scores.indexOf(2, 50));
+        assertEquals(2, scores.indexOf(3, 50));
+        assertEquals(3, scores.indexOf(4, 0));
+    }
+    
+    @Test
+    void removeTakesOutOnlyTheMatchingEntry() {
+        RankedScores scores = new RankedScores();
+        scores.add(1, 40);
+        scores.add(2, 40);
+        scores.add(3, 10);
+        
+        scores.remove(2, 40);
+        
+        assertEquals(2, scores.size());
+        assertEquals(1, scores.playerAt(0));
+        assertEquals(3, scores.playerAt(1));
+        assertEquals(1, scores.indexOf(3, 10));
+    }
+    
+    @Test
+    void removeOfAnUnknownEntryLeavesTheRankingAlone() {
+        RankedScores scores = new RankedScores();
+        scores.add(1, 40);
+        scores.add(2, 30);
+        
+        scores.remove(1, 30);
+        scores.remove(5, 40);
+        
+        assertEquals(2, scores.size());
+        assertEquals(1, scores.playerAt(0));
+        assertEquals(2, scores.playerAt(1));
+    }
+    
+    @Test
+    void playerAtOutOfRangeThrows() {
+        RankedScores scores = new RankedScores();
+        scores.add(1, 10);
+        
+        assertThrows(IndexOutOfBoundsException.class, () -> scores.playerAt(1));
+    }
+    
+    @Test
+    void agreesWithASortedListThroughRandomScoreChanges() {
+        Random random = new Random(42);
+        RankedScores scores = new RankedScores();
+        Map<Long, Integer> current = new HashMap<>();
+        
+        for (int step = 0; step < 5_000; step++) {
+            long playerId = random.nextInt(200);
+            int score = random.nextInt(60);
+            Integer previous = current.put(playerId, score);
+            if (previous != null) {
+                scores.remove(playerId, previous);
+            }
+            scores.add(playerId, score);
+        }
+        
+        List<Map.Entry<Long, Integer>> expected = new ArrayList<>(current.entrySet());
+        expected.sort(Comparator.comparing((Map.Entry<Long, Integer> entry) -> entry.getValue()).reversed()
+                .thenComparing(Map.Entry::getKey));
+        
+        assertEquals(expected.size(), scores.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Map.Entry<Long, Integer> entry = expected.get(i);
+            assertEquals((long) entry.getKey(), scores.playerAt(i));
+            assertEquals(i, scores.indexOf(entry.getKey(), entry.getValue()));
+        }
+    }
+}
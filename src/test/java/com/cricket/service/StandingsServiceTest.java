@@ -0,0 +1,195 @@
+package com.cricket.service;
+
+import com.cricket.entity.League;
+import com.cricket.entity.Match;
+import com.cricket.entity.MatchScorecard;
+import com.cricket.entity.Team;
+import com.cricket.repository.InningsRepository;
+import com.cricket.repository.MatchRunRateTotals;
+import com.cricket.repository.MatchScorecardRepository;
+import com.cricket.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandingsServiceTest {
+    
+    private static final Long LEAGUE_ID = 1L;
+    
+    private final MatchScorecardRepository scorecardRepository = mock(MatchScorecardRepository.class);
+    
+    private final TeamRepository teamRepository = mock(TeamRepository.class);
+    
+    private final InningsRepository inningsRepository = mock(InningsRepository.class);
+    
+    private final List<MatchScorecard> results = new ArrayList<>();
+    
+    private League league;
+    
+    private Team alpha;
+    
+    private Team bravo;
+    
+    private Team charlie;
+    
+    @BeforeEach
+    void setUp() {
+        league = new League();
+        league.setId(LEAGUE_ID);
+        alpha = team(10L, "Alpha");
+        bravo = team(20L, "Bravo");
+        charlie = team(30L, "Charlie");
+        
+        when(teamRepository.findByLeagueId(LEAGUE_ID)).thenReturn(List.of(alpha, bravo, charlie));
+        when(scorecardRepository.findCompletedByLeagueId(LEAGUE_ID)).thenReturn(results);
+        when(inningsRepository.findMatchRunRateTotalsByLeagueId(eq(LEAGUE_ID), anyInt())).thenReturn(List.of());
+    }
+    
+    @Test
+    void winsThenNetRunRateBreakATieOnPoints() {
+        results.add(result(1L, bravo, alpha, 150, 160, alpha.getId()));
+        results.add(result(2L, bravo, charlie, 140, 140, null));
+        results.add(result(3L, charlie, bravo, 130, 130, null));
+        // Bravo and Charlie are level on points and wins; Bravo's loss leaves it the worse run rate
+        when(inningsRepository.findMatchRunRateTotalsByLeagueId(eq(LEAGUE_ID), anyInt())).thenReturn(List.of(
+                runRate(1L, bravo.getId(), 150, 120, 160, 120),
+                runRate(1L, alpha.getId(), 160, 120, 150, 120),
+                runRate(2L, bravo.getId(), 140, 120, 140, 120),
+                runRate(2L, charlie.getId(), 140, 120, 140, 120),
+                runRate(3L, charlie.getId(), 130, 120, 130, 120),
+                runRate(3L, bravo.getId(), 130, 120, 130, 120)));
+        
+        List<Map<String, Object>> standings = service(List.of(StandingsService.Tiebreaker.WINS,
+                StandingsService.Tiebreaker.NET_RUN_RATE)).getStandings(LEAGUE_ID);
+        
+        assertEquals(List.of("Alpha", "Charlie", "Bravo"), names(standings));
+        assertEquals(2, standings.get(0).get("points"));
+        assertEquals(2, standings.get(1).get("points"));
+        assertEquals(2, standings.get(2).get("points"));
+        assertEquals(0.0, standings.get(1).get("netRunRate"));
+        assertEquals(-0.167, standings.get(2).get("netRunRate"));
+        assertEquals(420L, standings.get(2).get("runsScored"));
+        assertEquals(60.0, standings.get(2).get("oversFaced"));
+    }
+    
+    @Test
+    void headToHeadPutsTheWinnerOfTheirMatchFirst() {
+        results.add(result(1L, charlie, alpha, 150, 140, charlie.getId()));
+        results.add(result(2L, alpha, bravo, 170, 160, alpha.getId()));
+        
+        // Alpha and Charlie are level on points, and Charlie won the match between them
+        List<Map<String, Object>> standings = service(List.of(StandingsService.Tiebreaker.HEAD_TO_HEAD))
+                .getStandings(LEAGUE_ID);
+        
+        assertEquals(List.of("Charlie", "Alpha", "Bravo"), names(standings));
+    }
+    
+    @Test
+    void noResultsEarnAPointAndTeamsLevelOnEveryTiebreakerAreOrderedByName() {
+        results.add(result(1L, charlie, bravo, 0, 0, null));
+        
+        List<Map<String, Object>> standings = service(List.of(StandingsService.Tiebreaker.WINS,
+                StandingsService.Tiebreaker.NET_RUN_RATE)).getStandings(LEAGUE_ID);
+        
+        assertEquals(List.of("Bravo", "Charlie", "Alpha"), names(standings));
+        assertEquals(1, standings.get(0).get("noResults"));
+        assertEquals(1, standings.get(0).get("points"));
+        assertEquals(0, standings.get(2).get("matchesPlayed"));
+    }
+    
+    @Test
+    void aRecordedResultReplacesTheMatchsEarlierOneAndItsRunRates() {
+        results.add(result(1L, alpha, bravo, 150, 140, alpha.getId()));
+        when(inningsRepository.findMatchRunRateTotalsByLeagueId(eq(LEAGUE_ID), anyInt())).thenReturn(List.of(
+                runRate(1L, alpha.getId(), 150, 120, 140, 120),
+                runRate(1L, bravo.getId(), 140, 120, 150, 120)));
+        StandingsService service = service(List.of(StandingsService.Tiebreaker.WINS));
+        assertEquals(List.of("Alpha", "Bravo", "Charlie"), names(service.getStandings(LEAGUE_ID)));
+        
+        // A correction hands the match to Bravo
+        when(inningsRepository.findMatchRunRateTotalsByMatchId(eq(1L), anyInt())).thenReturn(List.of(
+                runRate(1L, alpha.getId(), 150, 120, 160, 120),
+                runRate(1L, bravo.getId(), 160, 120, 150, 120)));
+        MatchScorecard corrected = result(1L, alpha, bravo, 150, 160, bravo.getId());
+        corrected.getMatch().setStateVersion(2L);
+        service.recordResult(corrected);
+        
+        List<Map<String, Object>> standings = service.getStandings(LEAGUE_ID);
+        assertEquals(List.of("Bravo", "Alpha", "Charlie"), names(standings));
+        assertEquals(1, standings.get(0).get("matchesPlayed"));
+        assertEquals(0, standings.get(1).get("matchesWon"));
+        assertEquals(160L, standings.get(0).get("runsScored"));
+        assertEquals(150L, standings.get(0).get("runsConceded"));
+        assertEquals(0.5, standings.get(0).get("netRunRate"));
+        // Only the corrected match was read again, not the league
+        verify(inningsRepository, times(1)).findMatchRunRateTotalsByLeagueId(eq(LEAGUE_ID), anyInt());
+    }
+    
+    private StandingsService service(List<StandingsService.Tiebreaker> tiebreakers) {
+        StandingsService service = new StandingsService(mock(PlatformTransactionManager.class), 2, 1, 1, 20, tiebreakers);
+        ReflectionTestUtils.setField(service, "scorecardRepository", scorecardRepository);
+        ReflectionTestUtils.setField(service, "teamRepository", teamRepository);
+        ReflectionTestUtils.setField(service, "inningsRepository", inningsRepository);
+        return service;
+    }
+    
+    private MatchScorecard result(Long matchId, Team team1, Team team2, int team1Runs, int team2Runs, Long winnerId) {
+        Match match = new Match();
+        match.setId(matchId);
+        match.setLeague(league);
+        match.setTeam1(team1);
+        match.setTeam2(team2);
+        match.setStateVersion(1L);
+        
+        // A match where neither side scored is taken as one where nobody batted
+        double overs = team1Runs + team2Runs > 0 ? 20.0 : 0.0;
+        MatchScorecard scorecard = new MatchScorecard(match);
+        scorecard.setTeam1Runs(team1Runs);
+        scorecard.setTeam1Overs(overs);
+        scorecard.setTeam2Runs(team2Runs);
+        scorecard.setTeam2Overs(overs);
+        scorecard.setWinningTeamId(winnerId);
+        return scorecard;
+    }
+    
+    private static Team team(Long id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+    
+    private static List<Object> names(List<Map<String, Object>> standings) {
+        return standings.stream().map(row -> row.get("teamName")).toList();
+    }
+    
+    private static MatchRunRateTotals runRate(Long matchId, Long teamId, long runsScored, long ballsFaced,
+                                              long runsConceded, long ballsBowled) {
+        return new MatchRunRateTotals() {
+            public Long getMatchId() { return matchId; }
+            
+            public Long getTeamId() { return teamId; }
+            
+            public Long getRunsScored() { return runsScored; }
+            
+            public Long getBallsFaced() { return ballsFaced; }
+            
+            public Long getRunsConceded() { return runsConceded; }
+            
+            public Long getBallsBowled() { return ballsBowled; }
+        };
+    }
+}
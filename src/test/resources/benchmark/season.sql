@@ -0,0 +1,78 @@
+-- Synthetic season for the database benchmarks: 10 teams of 11 players and 60 completed
+-- matches, each with two full 20-over innings. It is loaded just before V8, whose backfill
+-- then builds player_innings from these balls.
+INSERT INTO leagues (name, start_date, end_date, status)
+VALUES ('Benchmark Season', '2025-01-01', '2025-06-30', 'ONGOING');
+
+INSERT INTO teams (name, league_id)
+SELECT 'Benchmark Team ' || t, l.id
+FROM leagues l, generate_series(1, 10) t
+WHERE l.name = 'Benchmark Season';
+
+INSERT INTO players (name, date_of_birth, batting_style, bowling_style, team_id)
+SELECT tm.name || ' Player ' || p, DATE '1995-01-01', 'RIGHT_HANDED', 'RIGHT_ARM_MEDIUM', tm.id
+FROM teams tm
+JOIN leagues l ON l.id = tm.league_id
+CROSS JOIN generate_series(1, 11) p
+WHERE l.name = 'Benchmark Season';
+
+-- Every team meets a different opponent in each round of ten matches
+WITH numbered AS (
+    SELECT tm.id, tm.league_id, ROW_NUMBER() OVER (ORDER BY tm.id) - 1 AS n
+    FROM teams tm
+    JOIN leagues l ON l.id = tm.league_id
+    WHERE l.name = 'Benchmark Season'
+)
+INSERT INTO matches (league_id, team1_id, team2_id, venue, match_date, status)
+SELECT t1.league_id, t1.id, t2.id, 'Benchmark Ground', DATE '2025-01-01' + m, 'COMPLETED'
+FROM generate_series(0, 59) m
+JOIN numbered t1 ON t1.n = m % 10
+JOIN numbered t2 ON t2.n = (m % 10 + 1 + m / 10 % 9) % 10;
+
+INSERT INTO innings (match_id, batting_team_id, bowling_team_id, innings_number, status)
+SELECT m.id,
+       CASE WHEN i = 1 THEN m.team1_id ELSE m.team2_id END,
+       CASE WHEN i = 1 THEN m.team2_id ELSE m.team1_id END,
+       i,
+       'COMPLETED'
+FROM matches m
+JOIN leagues l ON l.id = m.league_id
+CROSS JOIN generate_series(1, 2) i
+WHERE l.name = 'Benchmark Season';
+
+-- Ten batters face twelve balls each and are out on the last; five bowlers bowl four overs each
+WITH squad AS (
+    SELECT p.id, p.team_id, ROW_NUMBER() OVER (PARTITION BY p.team_id ORDER BY p.id) - 1 AS n
+    FROM players p
+    JOIN teams tm ON tm.id = p.team_id
+    JOIN leagues l ON l.id = tm.league_id
+    WHERE l.name = 'Benchmark Season'
+)
+INSERT INTO balls (innings_id, over_number, ball_number, sequence_number, batsman_id, bowler_id,
+                   runs, is_wicket, wicket_type)
+SELECT i.id,
+       b / 6,
+       b % 6 + 1,
+       b + 1,
+       batter.id,
+       bowler.id,
+       (ARRAY[0, 0, 1, 1, 1, 2, 2, 3, 4, 4, 6])[1 + ((i.id * 31 + b * 17) % 11)::INTEGER],
+       b % 12 = 11,
+       CASE WHEN b % 12 = 11 THEN 'BOWLED' END
+FROM innings i
+JOIN matches m ON m.id = i.match_id
+JOIN leagues l ON l.id = m.league_id
+CROSS JOIN generate_series(0, 119) b
+JOIN squad batter ON batter.team_id = i.batting_team_id AND batter.n = b / 12
+JOIN squad bowler ON bowler.team_id = i.bowling_team_id AND bowler.n = 6 + b / 6 % 5
+WHERE l.name = 'Benchmark Season';
+
+UPDATE innings i
+SET total_runs = t.runs, wickets = t.wickets, legal_balls = t.legal_balls, overs = 20
+FROM (
+    SELECT b.innings_id, SUM(b.runs) AS runs, COUNT(*) FILTER (WHERE b.is_wicket) AS wickets,
+           COUNT(*) AS legal_balls
+    FROM balls b
+    GROUP BY b.innings_id
+) t
+WHERE t.innings_id = i.id;